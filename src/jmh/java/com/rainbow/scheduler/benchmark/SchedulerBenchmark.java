@@ -0,0 +1,152 @@
+package com.rainbow.scheduler.benchmark;
+
+import com.rainbow.scheduler.dto.ScheduleOptions;
+import com.rainbow.scheduler.dto.ScheduleResponseDTO;
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Machine;
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.model.ScheduleSlot;
+import com.rainbow.scheduler.optimizer.AnnealingSettings;
+import com.rainbow.scheduler.optimizer.CleaningCostMatrix;
+import com.rainbow.scheduler.optimizer.ProductionClock;
+import com.rainbow.scheduler.optimizer.SequenceObjective;
+import com.rainbow.scheduler.service.CleaningService;
+import com.rainbow.scheduler.service.MultiStartOptimizer;
+import com.rainbow.scheduler.service.SchedulingService;
+import com.rainbow.scheduler.service.strategy.GreedyOnlyStrategy;
+import com.rainbow.scheduler.service.strategy.SchedulingStrategyRegistry;
+import com.rainbow.scheduler.service.strategy.StrategyContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler core at 100 to 100k orders:
+ * <ul>
+ * <li>cleaningTime - cleaning minutes of a sequence via CleaningService (one lookup per order)</li>
+ * <li>greedyInsertion - the "fast" strategy, the greedy start every other strategy builds on</li>
+ * <li>annealing - multi-start annealing from the greedy sequence, on a fixed iteration budget
+ * with no time budget so results do not depend on the machine's clock</li>
+ * <li>mapToSlots - timing a sequence onto the production calendar</li>
+ * <li>pipeline - generateOptimizedSchedule + convertToDTO with the default strategy</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SchedulerBenchmark {
+
+    private static final AnnealingSettings ANNEALING = new AnnealingSettings(200_000, 0, 25, 0.05);
+
+    @Param({ "100", "1000", "10000", "100000" })
+    public int orders;
+
+    private SchedulerFixture fixture;
+    private SchedulingService schedulingService;
+    private CleaningService cleaningService;
+    private MultiStartOptimizer multiStartOptimizer;
+    private GreedyOnlyStrategy greedy;
+    private CleaningCostMatrix matrix;
+    private Machine machine;
+    private List<Order> baseSequence;
+    private List<Order> greedySequence;
+    private LocalDateTime planStart;
+    private SequenceObjective objective;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new SchedulerFixture();
+        schedulingService = fixture.get(SchedulingService.class);
+        cleaningService = fixture.get(CleaningService.class);
+        multiStartOptimizer = fixture.get(MultiStartOptimizer.class);
+        greedy = (GreedyOnlyStrategy) fixture.get(SchedulingStrategyRegistry.class).get(GreedyOnlyStrategy.NAME);
+        machine = schedulingService.resolveMachines(null).get(0);
+        matrix = cleaningService.getMatrix(machine.getId());
+        planStart = LocalDateTime.now().withHour(8).withMinute(0).withSecond(0).withNano(0);
+        objective = SequenceObjective.of(schedulingService.objectiveWeights(), new ProductionClock(8, 15), planStart,
+                machine.getDyeingSpeed());
+        baseSequence = schedulingService.generateBaseSchedule(
+                schedulingService.analyzeOrders(SchedulerFixture.orders(orders)));
+        greedySequence = greedy.sequence(baseSequence, context()).sequence();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public int cleaningTime() {
+        int total = 0;
+        ColorFamily last = machine.getCurrentColorFamily();
+        for (Order order : greedySequence) {
+            total += cleaningService.calculateCleaningTime(last, order.getColorFamily());
+            last = order.getColorFamily();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public List<Order> greedyInsertion() {
+        return greedy.sequence(baseSequence, context()).sequence();
+    }
+
+    @Benchmark
+    public MultiStartOptimizer.Result annealing() {
+        return multiStartOptimizer.optimize(greedySequence, matrix, machine.getCurrentColorFamily(), ANNEALING,
+                SchedulerFixture.SEED, objective);
+    }
+
+    @Benchmark
+    public List<ScheduleSlot> mapToSlots() {
+        return schedulingService.mapToSlots(greedySequence, planStart, machine);
+    }
+
+    @Benchmark
+    public ScheduleResponseDTO pipeline(PipelineInput input) {
+        return schedulingService.convertToDTO(schedulingService.generateOptimizedSchedule(input.orders,
+                ScheduleOptions.builder().seed(SchedulerFixture.SEED).build()));
+    }
+
+    /**
+     * The pipeline writes planned times onto its orders (and freezes those already started), so
+     * every call gets unplanned copies.
+     */
+    @State(Scope.Thread)
+    public static class PipelineInput {
+
+        private List<Order> template;
+        List<Order> orders;
+
+        @Setup(Level.Trial)
+        public void generate(SchedulerBenchmark benchmark) {
+            template = SchedulerFixture.orders(benchmark.orders);
+        }
+
+        @Setup(Level.Invocation)
+        public void copy() {
+            orders = SchedulerFixture.copy(template);
+        }
+    }
+
+    private StrategyContext context() {
+        return new StrategyContext(matrix, machine.getCurrentColorFamily(), null, SchedulerFixture.SEED, objective);
+    }
+}
@@ -0,0 +1,114 @@
+package com.rainbow.scheduler.benchmark;
+
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.repository.OrderRepository;
+import com.rainbow.scheduler.repository.SimulationRunRepository;
+import com.rainbow.scheduler.service.CampaignService;
+import com.rainbow.scheduler.service.CleaningMatrixProperties;
+import com.rainbow.scheduler.service.CleaningService;
+import com.rainbow.scheduler.service.EcoService;
+import com.rainbow.scheduler.service.MachineAssignmentService;
+import com.rainbow.scheduler.service.MachineProperties;
+import com.rainbow.scheduler.service.MultiStartOptimizer;
+import com.rainbow.scheduler.service.ScheduleCache;
+import com.rainbow.scheduler.service.SchedulerMetrics;
+import com.rainbow.scheduler.service.SchedulingService;
+import com.rainbow.scheduler.service.ShiftCalendarProperties;
+import com.rainbow.scheduler.service.ShiftCalendarService;
+import com.rainbow.scheduler.service.SimulationService;
+import com.rainbow.scheduler.service.strategy.DeepSearchStrategy;
+import com.rainbow.scheduler.service.strategy.ExactStrategy;
+import com.rainbow.scheduler.service.strategy.GreedyAnnealingStrategy;
+import com.rainbow.scheduler.service.strategy.GreedyOnlyStrategy;
+import com.rainbow.scheduler.service.strategy.SchedulingStrategyRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The scheduler core wired without a database: the services run with their default
+ * properties, repositories are no-op stubs and the schedule cache is off, so every call
+ * does the full work.
+ */
+final class SchedulerFixture implements AutoCloseable {
+
+    static final long SEED = 42L;
+
+    private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+    SchedulerFixture() {
+        context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("benchmark", Map.of("scheduler.cache.enabled", "false")));
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.registerBean(Clock.class, Clock::systemDefaultZone);
+        context.registerBean(OrderRepository.class, () -> stub(OrderRepository.class));
+        context.registerBean(SimulationRunRepository.class, () -> stub(SimulationRunRepository.class));
+        context.register(CleaningMatrixProperties.class, CleaningService.class, MachineProperties.class,
+                SchedulerMetrics.class, ShiftCalendarProperties.class, ShiftCalendarService.class,
+                CampaignService.class, EcoService.class, MultiStartOptimizer.class, MachineAssignmentService.class,
+                ScheduleCache.class, GreedyOnlyStrategy.class, GreedyAnnealingStrategy.class,
+                DeepSearchStrategy.class, ExactStrategy.class, SchedulingStrategyRegistry.class,
+                SchedulingService.class);
+        context.refresh();
+    }
+
+    <T> T get(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Same mix as a simulation run, seeded so every fork plans the same orders.
+     */
+    static List<Order> orders(int count) {
+        List<Order> orders = SimulationService.generateRandomOrders(count, null, new Random(SEED));
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setId(i + 1L);
+        }
+        return orders;
+    }
+
+    /**
+     * Unplanned copies, so a benchmark that persists planned times starts from the same state.
+     */
+    static List<Order> copy(List<Order> orders) {
+        List<Order> copies = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            copies.add(Order.builder()
+                    .id(order.getId())
+                    .colorName(order.getColorName())
+                    .colorFamily(order.getColorFamily())
+                    .quantityMeters(order.getQuantityMeters())
+                    .orderType(order.getOrderType())
+                    .deadlineHours(order.getDeadlineHours())
+                    .createdAt(order.getCreatedAt())
+                    .status(order.getStatus())
+                    .simulationRunId(order.getSimulationRunId())
+                    .build());
+        }
+        return copies;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "toString" -> type.getSimpleName() + " stub";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+}
@@ -2,6 +2,9 @@ package com.rainbow.scheduler;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Clock;
 
 @SpringBootApplication
 public class TextileSchedulerApplication {
@@ -10,4 +13,12 @@ public class TextileSchedulerApplication {
         SpringApplication.run(TextileSchedulerApplication.class, args);
     }
 
+    /**
+     * Wall clock the planner reads "now" from.
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
 }
@@ -22,6 +22,7 @@ public class SecurityConfig {
                                                                                                                  // &
                                                                                                                  // login
                                                                                                                  // page
+                                                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll() // Scrapers
                                                 .anyRequest().authenticated() // Secure everything else
                                 )
                                 .formLogin(form -> form
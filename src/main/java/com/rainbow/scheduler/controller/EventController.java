@@ -0,0 +1,25 @@
+package com.rainbow.scheduler.controller;
+
+import com.rainbow.scheduler.service.DashboardEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventController {
+
+    private final DashboardEventService dashboardEventService;
+
+    /**
+     * Event stream for the dashboard; event names are the constants on {@link DashboardEventService}.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe() {
+        return dashboardEventService.subscribe();
+    }
+}
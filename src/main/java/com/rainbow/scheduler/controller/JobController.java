@@ -0,0 +1,112 @@
+package com.rainbow.scheduler.controller;
+
+import com.rainbow.scheduler.dto.JobDTO;
+import com.rainbow.scheduler.dto.ScheduleOptions;
+import com.rainbow.scheduler.dto.SimulationProfile;
+import com.rainbow.scheduler.model.Machine;
+import com.rainbow.scheduler.repository.OrderRepository;
+import com.rainbow.scheduler.service.BatchScheduleService;
+import com.rainbow.scheduler.service.HeadlessSimulationService;
+import com.rainbow.scheduler.service.JobService;
+import com.rainbow.scheduler.service.SchedulingService;
+import com.rainbow.scheduler.service.SimulationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Asynchronous variants of /api/schedule/generate and /api/simulations/run, plus headless
+ * simulations: submit answers 202 with a job id straight away, GET /api/jobs/{id} reports
+ * progress and, once done, the result.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+public class JobController {
+
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private final JobService jobService;
+    private final SimulationService simulationService;
+    private final HeadlessSimulationService headlessSimulationService;
+    private final BatchScheduleService batchScheduleService;
+    private final SchedulingService schedulingService;
+    private final OrderRepository orderRepository;
+
+    @PostMapping("/simulations")
+    public ResponseEntity<?> submitSimulation() {
+        return submit("simulation", SimulationService.TEST_CASES, progress -> {
+            for (int i = 1; i <= SimulationService.TEST_CASES; i++) {
+                simulationService.runTestCase(i);
+                progress.step("Peak Test Case " + i + " done");
+            }
+            return null;
+        });
+    }
+
+    /**
+     * In-memory simulation at capacity-planning volumes; the job result is the aggregated run.
+     */
+    @PostMapping("/simulations/headless")
+    public ResponseEntity<?> submitHeadlessSimulation(@RequestBody(required = false) SimulationProfile profile) {
+        SimulationProfile demand = profile != null ? profile : SimulationProfile.builder().build();
+        try {
+            headlessSimulationService.validate(demand);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        return submit("headless-simulation", demand.getCases(),
+                progress -> headlessSimulationService.run(demand, progress));
+    }
+
+    /**
+     * Same parameters as /api/schedule/generate; orders are read when the job starts.
+     */
+    @PostMapping("/schedules")
+    public ResponseEntity<?> submitSchedule(@RequestParam(required = false) String strategy,
+            @RequestParam(required = false) Long timeBudgetMs,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) String minimize,
+            @RequestBody(required = false) List<Machine> machines) {
+        ScheduleOptions options = ScheduleController.options(strategy, timeBudgetMs, seed, minimize, machines);
+        try {
+            schedulingService.validate(options);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (orderRepository.count() == 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return submit("schedule", 1, progress -> batchScheduleService.generate(orderRepository.findAll(), options));
+    }
+
+    @GetMapping
+    public List<JobDTO> getJobs() {
+        return jobService.list();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<JobDTO> getJob(@PathVariable String id) {
+        return jobService.get(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<?> submit(String type, int steps, Function<JobService.Progress, Object> work) {
+        try {
+            JobDTO job = jobService.submit(type, steps, work);
+            return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.getId())).body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body("Job queue is full, retry later.");
+        }
+    }
+}
@@ -1,13 +1,24 @@
 package com.rainbow.scheduler.controller;
 
+import com.rainbow.scheduler.dto.ImportReportDTO;
+import com.rainbow.scheduler.model.ColorFamily;
 import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.model.OrderStatus;
 import com.rainbow.scheduler.repository.OrderRepository;
+import com.rainbow.scheduler.service.DashboardEventService;
+import com.rainbow.scheduler.service.IncrementalScheduler;
+import com.rainbow.scheduler.service.OrderImportService;
+import com.rainbow.scheduler.service.OrderListingService;
+import com.rainbow.scheduler.service.ScheduleCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -15,45 +26,94 @@ import java.util.List;
 public class OrderController {
 
     private final OrderRepository orderRepository;
+    private final IncrementalScheduler incrementalScheduler;
+    private final OrderImportService orderImportService;
+    private final OrderListingService orderListingService;
+    private final DashboardEventService dashboardEvents;
+    private final ScheduleCache scheduleCache;
 
     @GetMapping
     public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderRepository.findAll().stream()
-                .sorted(java.util.Comparator.comparing(Order::getScheduledStartTime,
-                        java.util.Comparator.nullsLast(java.util.Comparator.naturalOrder()))
-                        .thenComparing(Order::getId))
-                .collect(java.util.stream.Collectors.toList()));
+        return ResponseEntity.ok(orderListingService.all());
+    }
+
+    /**
+     * Orders in plan order, one keyset page at a time. Filters are optional and combine.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> getOrderPage(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) ColorFamily colorFamily,
+            @RequestParam(required = false) Long simulationRunId) {
+        try {
+            return ResponseEntity.ok(orderListingService.page(cursor, size, status, colorFamily, simulationRunId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PostMapping
     public ResponseEntity<?> createOrder(@RequestBody Order order) {
-        if (orderRepository.count() >= 1000) {
-            return ResponseEntity.badRequest()
-                    .body("Factory capacity reached (1000 orders). Please clear or process existing orders.");
+        if (orderRepository.count() >= OrderImportService.FACTORY_CAPACITY) {
+            return ResponseEntity.badRequest().body(OrderImportService.CAPACITY_MESSAGE);
         }
 
-        if (order.getQuantityMeters() < 100) {
-            return ResponseEntity.badRequest().body("Minimum order size is 100 meters.");
+        String rejectReason = orderImportService.rejectReason(order);
+        if (rejectReason != null) {
+            return ResponseEntity.badRequest().body(rejectReason);
         }
 
-        if (order.getCreatedAt() == null) {
-            order.setCreatedAt(LocalDateTime.now());
+        Optional<Order> created = orderImportService.create(order);
+        if (created.isEmpty()) {
+            return ResponseEntity.badRequest().body(OrderImportService.CAPACITY_MESSAGE);
+        }
+        Order saved = created.get();
+        scheduleCache.invalidate(saved);
+        // Folds the order into the live plan (if any) and persists only the orders it moved
+        incrementalScheduler.onOrderCreated(saved);
+        dashboardEvents.publish(DashboardEventService.ORDER_CREATED, saved);
+        return ResponseEntity.ok(saved);
+    }
+
+    /**
+     * Bulk import from an ERP export: text/csv with a header row (colorName, colorFamily,
+     * quantityMeters, orderType, deadlineHours[, createdAt]) or application/x-ndjson, one order
+     * per line. Invalid lines are reported and skipped.
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    public ResponseEntity<ImportReportDTO> importOrders(@RequestHeader("Content-Type") String contentType,
+            InputStream body) throws IOException {
+        OrderImportService.Format format = contentType.startsWith("text/csv") ? OrderImportService.Format.CSV
+                : OrderImportService.Format.NDJSON;
+        ImportReportDTO report = orderImportService.importOrders(body, format);
+        if (report.getImported() > 0) {
+            // Too many arrivals to fold in one by one; the next generate plans them all
+            incrementalScheduler.reset();
+            scheduleCache.invalidateBatch(null); // Imported orders are manual orders
+            dashboardEvents.publish(DashboardEventService.ORDERS_IMPORTED, Map.of("imported", report.getImported()));
         }
-        return ResponseEntity.ok(orderRepository.save(order));
+        return ResponseEntity.ok(report);
     }
 
     @DeleteMapping("/clear")
     public ResponseEntity<Void> clearOrders() {
         orderRepository.deleteAll();
+        incrementalScheduler.reset();
+        scheduleCache.invalidateAll();
+        dashboardEvents.publish(DashboardEventService.ORDERS_CLEARED, Map.of());
         return ResponseEntity.ok().build();
     }
 
     @PatchMapping("/{id}/status")
     public ResponseEntity<Order> updateStatus(@PathVariable Long id,
-            @RequestParam com.rainbow.scheduler.model.OrderStatus status) {
+            @RequestParam OrderStatus status) {
         return orderRepository.findById(id).map(order -> {
             order.setStatus(status);
-            return ResponseEntity.ok(orderRepository.save(order));
+            Order saved = orderRepository.save(order);
+            scheduleCache.invalidate(saved);
+            dashboardEvents.publish(DashboardEventService.ORDER_UPDATED, saved);
+            return ResponseEntity.ok(saved);
         }).orElse(ResponseEntity.notFound().build());
     }
 }
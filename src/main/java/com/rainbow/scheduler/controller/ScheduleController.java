@@ -1,72 +1,182 @@
 package com.rainbow.scheduler.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rainbow.scheduler.dto.CacheStatsDTO;
+import com.rainbow.scheduler.dto.ScheduleOptions;
 import com.rainbow.scheduler.dto.ScheduleResponseDTO;
+import com.rainbow.scheduler.model.Machine;
 import com.rainbow.scheduler.model.Order;
-import com.rainbow.scheduler.model.Schedule;
+import com.rainbow.scheduler.optimizer.ProductionClock;
 import com.rainbow.scheduler.repository.OrderRepository;
+import com.rainbow.scheduler.service.BatchScheduleService;
+import com.rainbow.scheduler.service.EcoService;
+import com.rainbow.scheduler.service.IncrementalScheduler;
+import com.rainbow.scheduler.service.ScheduleCache;
 import com.rainbow.scheduler.service.SchedulingService;
+import com.rainbow.scheduler.service.strategy.SchedulingStrategyRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/schedule")
 @RequiredArgsConstructor
 public class ScheduleController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final BatchScheduleService batchScheduleService;
     private final SchedulingService schedulingService;
+    private final IncrementalScheduler incrementalScheduler;
+    private final SchedulingStrategyRegistry strategyRegistry;
     private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final ScheduleCache scheduleCache;
+    private final EcoService ecoService;
 
+    /**
+     * @param strategy     fast (greedy only), balanced (default), deep or exact
+     * @param timeBudgetMs search budget for annealing strategies
+     * @param seed         seed for the annealing run; the plan reports the seed it ran with, and
+     *                     optimizerReplayable is false when the time budget cut the run short, so
+     *                     passing the seed back does not replay it
+     * @param minimize     minutes (the weighted objective) or water; omitted uses optimizer.objective.minimize
+     * @param machines     dye vats to plan on; omitted uses production.machines
+     */
     @PostMapping("/generate")
-    public ResponseEntity<ScheduleResponseDTO> generateSchedule() {
+    public ResponseEntity<?> generateSchedule(@RequestParam(required = false) String strategy,
+            @RequestParam(required = false) Long timeBudgetMs,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) String minimize,
+            @RequestBody(required = false) List<Machine> machines) {
+        String invalid = validate(strategy, timeBudgetMs, minimize, machines);
+        if (invalid != null) {
+            return ResponseEntity.badRequest().body(invalid);
+        }
+
         List<Order> orders = orderRepository.findAll();
         if (orders.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
+        return ResponseEntity.ok(batchScheduleService.generate(orders,
+                options(strategy, timeBudgetMs, seed, minimize, machines)));
+    }
 
-        // Group by Simulation Run ID (null key for manual orders)
-        java.util.Map<Long, List<Order>> groups = orders.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                        o -> o.getSimulationRunId() == null ? -1L : o.getSimulationRunId()));
+    /**
+     * Same plan and parameters as /generate, streamed as NDJSON: slot records as each batch is
+     * ready, then one summary record (see {@link ScheduleNdjsonWriter}).
+     */
+    @PostMapping(value = "/generate/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamSchedule(@RequestParam(required = false) String strategy,
+            @RequestParam(required = false) Long timeBudgetMs,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) String minimize,
+            @RequestBody(required = false) List<Machine> machines) {
+        String invalid = validate(strategy, timeBudgetMs, minimize, machines);
+        if (invalid != null) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN)
+                    .body(out -> out.write(invalid.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        List<Order> orders = orderRepository.findAll();
+        if (orders.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        ScheduleOptions options = options(strategy, timeBudgetMs, seed, minimize, machines);
+        StreamingResponseBody body = out -> {
+            ScheduleNdjsonWriter writer = new ScheduleNdjsonWriter(objectMapper, ecoService, out);
+            try {
+                batchScheduleService.stream(orders, options, (batch, metrics, multiBatch) -> {
+                    try {
+                        writer.writeBatch(batch, metrics, multiBatch);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // Client went away
+            } catch (RuntimeException e) {
+                writer.writeError(e.getMessage());
+                return;
+            }
+            writer.writeSummary();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
 
-        if (groups.size() <= 1) {
-            // Standard single-batch behavior
-            Schedule schedule = schedulingService.generateOptimizedSchedule(orders);
-            return ResponseEntity.ok(schedulingService.convertToDTO(schedule));
+    private String validate(String strategy, Long timeBudgetMs, String minimize, List<Machine> machines) {
+        try {
+            schedulingService.validate(options(strategy, timeBudgetMs, null, minimize, machines));
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
         }
+    }
 
-        // Multi-batch/Simulation behavior (1000 orders case)
-        List<ScheduleResponseDTO.SlotDTO> allSlots = new java.util.ArrayList<>();
-        int totalCleaning = 0;
-        int totalFifo = 0;
-        Schedule lastSchedule = null;
+    static ScheduleOptions options(String strategy, Long timeBudgetMs, Long seed, String minimize,
+            List<Machine> machines) {
+        return ScheduleOptions.builder()
+                .strategy(strategy)
+                .timeBudgetMs(timeBudgetMs)
+                .seed(seed)
+                .minimize(minimize)
+                .machines(machines)
+                .build();
+    }
 
-        for (List<Order> batch : groups.values()) {
-            Schedule batchSchedule = schedulingService.generateOptimizedSchedule(batch);
-            // This triggers the DB update for this specific run
-            schedulingService.convertToDTO(batchSchedule);
+    /**
+     * Live plan of manual orders, including orders folded in since the last generate.
+     */
+    @GetMapping("/current")
+    public ResponseEntity<ScheduleResponseDTO> getCurrentSchedule() {
+        return incrementalScheduler.current()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 
-            // Aggregate for display
-            totalCleaning += batchSchedule.getTotalCleaningTimeMinutes();
-            totalFifo += batchSchedule.getFifoCleaningTimeMinutes();
+    @GetMapping("/machines")
+    public List<Machine> getMachines() {
+        return schedulingService.resolveMachines(null);
+    }
+
+    /**
+     * Hit, miss and eviction counters of the schedule result cache.
+     */
+    @GetMapping("/cache")
+    public CacheStatsDTO getCacheStats() {
+        return scheduleCache.stats();
+    }
 
-            ScheduleResponseDTO batchDTO = schedulingService.convertToDTO(batchSchedule);
-            allSlots.addAll(batchDTO.getSchedule());
-            lastSchedule = batchSchedule;
+    /**
+     * Earliest start at or after {@code from} (default now) for a job of {@code minutes},
+     * under the shift calendar or, without one, the fixed daily window.
+     */
+    @GetMapping("/calendar/next-start")
+    public ResponseEntity<?> getNextStart(@RequestParam long minutes,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from) {
+        if (minutes < 1) {
+            return ResponseEntity.badRequest().body("minutes must be at least 1");
         }
+        LocalDateTime earliest = from != null ? from : LocalDateTime.now();
+        long start = schedulingService.productionClock().window(ProductionClock.toMinute(earliest), minutes);
+        return ResponseEntity.ok(Map.of(
+                "start", ProductionClock.toDateTime(start).toString(),
+                "end", ProductionClock.toDateTime(start + minutes).toString()));
+    }
 
-        // Create a synthetic response for the frontend dashboard
-        int timeSaved = totalFifo - totalCleaning;
-
-        return ResponseEntity.ok(ScheduleResponseDTO.builder()
-                .optimizedCleaningTimeMinutes(totalCleaning)
-                .fifoCleaningTimeMinutes(totalFifo)
-                .timeSavedMinutes(Math.max(0, timeSaved))
-                .deadlineCompliance("N/A (Multi-Batch)") // Complex to aggregate
-                .machineEfficiency("100%") // Placeholder for combined view
-                .schedule(allSlots)
-                .build());
+    @GetMapping("/strategies")
+    public Set<String> getStrategies() {
+        return strategyRegistry.names();
     }
 }
@@ -0,0 +1,144 @@
+package com.rainbow.scheduler.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rainbow.scheduler.model.Schedule;
+import com.rainbow.scheduler.model.ScheduleSlot;
+import com.rainbow.scheduler.service.EcoService;
+import com.rainbow.scheduler.service.ScheduleTotals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes a plan as NDJSON: one {"type":"slot",...} record per slot, in the SlotDTO shape, then a
+ * single {"type":"summary",...} trailer with what ScheduleResponseDTO carries besides the slots.
+ *
+ * Only running totals are kept between batches, so memory does not depend on the plan size.
+ */
+class ScheduleNdjsonWriter {
+
+    private final JsonGenerator json;
+    private final EcoService ecoService;
+    private final Map<String, MachineTotals> machines = new LinkedHashMap<>();
+
+    private final ScheduleTotals totals = new ScheduleTotals();
+
+    private long slotCount;
+    private Schedule lastBatch;
+    private Map<String, String> lastMetrics;
+    private boolean multiBatch;
+
+    ScheduleNdjsonWriter(ObjectMapper objectMapper, EcoService ecoService, OutputStream out) throws IOException {
+        this.json = objectMapper.getFactory().createGenerator(out);
+        this.ecoService = ecoService;
+        this.json.setRootValueSeparator(null); // Records are newline-separated instead
+    }
+
+    void writeBatch(Schedule batch, Map<String, String> metrics, boolean multiBatch) throws IOException {
+        for (ScheduleSlot slot : batch.getSlots()) {
+            json.writeStartObject();
+            json.writeStringField("type", "slot");
+            json.writeNumberField("orderId", slot.getOrder().getId());
+            json.writeStringField("machineId", slot.getMachineId());
+            json.writeStringField("colorFamily", slot.getColorFamily().name());
+            json.writeStringField("startTime", slot.getStartTime().toString());
+            json.writeStringField("endTime", slot.getEndTime().toString());
+            json.writeNumberField("cleaningBeforeMinutes", slot.getCleaningBeforeMinutes());
+            json.writeBooleanField("frozen", slot.isFrozen());
+            json.writeBooleanField("continuesLot", slot.isContinuesLot());
+            json.writeNumberField("waterLiters", slot.getWaterLiters());
+            json.writeNumberField("chemicalWasteKg", slot.getChemicalWasteKg());
+            json.writeEndObject();
+            json.writeRaw('\n');
+
+            machines.computeIfAbsent(slot.getMachineId(), id -> new MachineTotals()).add(slot);
+            slotCount++;
+        }
+        json.flush();
+
+        totals.add(batch);
+        this.multiBatch = multiBatch;
+        lastBatch = batch;
+        lastMetrics = metrics;
+    }
+
+    /**
+     * Summary trailer; mirrors how /generate reports single and multi-batch plans.
+     */
+    void writeSummary() throws IOException {
+        json.writeStartObject();
+        json.writeStringField("type", "summary");
+        json.writeNumberField("slotCount", slotCount);
+        json.writeNumberField("batches", totals.getBatches());
+        json.writeNumberField("optimizedCleaningTimeMinutes", totals.getCleaningMinutes());
+        json.writeNumberField("fifoCleaningTimeMinutes", totals.getFifoCleaningMinutes());
+        json.writeNumberField("timeSavedMinutes", totals.timeSavedMinutes());
+        json.writeNumberField("colorChangeovers", totals.getColorChangeovers());
+        json.writeNumberField("totalTardinessMinutes", totals.getTardinessMinutes());
+        json.writeNumberField("idleMinutes", totals.getIdleMinutes());
+        json.writeNumberField("objectiveScore", totals.getObjectiveScore());
+        json.writeNumberField("totalWaterLiters", totals.getWaterLiters());
+        json.writeNumberField("totalChemicalWasteKg", totals.getChemicalWasteKg());
+        json.writeStringField("ecoGrade", ecoService.grade(totals.getWaterLiters(), totals.getDyedMeters()));
+        if (lastBatch != null) {
+            if (!multiBatch && lastBatch.getLowerBoundCleaningTimeMinutes() != null) {
+                json.writeNumberField("lowerBoundCleaningTimeMinutes", lastBatch.getLowerBoundCleaningTimeMinutes());
+            }
+            json.writeStringField("deadlineCompliance",
+                    multiBatch ? "N/A (Multi-Batch)" : lastMetrics.get("compliance"));
+            json.writeStringField("machineEfficiency", multiBatch ? "100%" : lastMetrics.get("efficiency"));
+            json.writeStringField("strategy", lastBatch.getStrategy());
+            if (lastBatch.getOptimizerSeed() != null) {
+                json.writeNumberField("optimizerSeed", lastBatch.getOptimizerSeed());
+            }
+            if (totals.getReplayable() != null) {
+                json.writeBooleanField("optimizerReplayable", totals.getReplayable());
+            }
+        }
+        json.writeArrayFieldStart("machines");
+        for (Map.Entry<String, MachineTotals> machine : machines.entrySet()) {
+            json.writeStartObject();
+            json.writeStringField("machineId", machine.getKey());
+            json.writeNumberField("orderCount", machine.getValue().orderCount);
+            json.writeNumberField("cleaningMinutes", machine.getValue().cleaningMinutes);
+            json.writeStringField("completionTime", machine.getValue().completionTime);
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeRaw('\n');
+        json.flush();
+    }
+
+    /**
+     * A failure after the first byte cannot change the status code any more; report it in-band.
+     */
+    void writeError(String message) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("type", "error");
+        json.writeStringField("message", message);
+        json.writeEndObject();
+        json.writeRaw('\n');
+        json.flush();
+    }
+
+    private static class MachineTotals {
+        private int orderCount;
+        private int cleaningMinutes;
+        private String completionTime;
+        private LocalDateTime latestEnd;
+
+        void add(ScheduleSlot slot) {
+            orderCount++;
+            cleaningMinutes += slot.getCleaningBeforeMinutes();
+            if (latestEnd == null || slot.getEndTime().isAfter(latestEnd)) {
+                latestEnd = slot.getEndTime();
+                completionTime = latestEnd.toString();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.rainbow.scheduler.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Counters of the schedule result cache (GET /api/schedule/cache).
+ */
+@Data
+@Builder
+public class CacheStatsDTO {
+    private boolean enabled;
+    private int size;
+    private int maxEntries;
+    private long hits;
+    private long misses;
+    private long evictions; // Dropped for size or age
+    private long invalidations; // Dropped because one of their orders changed
+    private double hitRate;
+}
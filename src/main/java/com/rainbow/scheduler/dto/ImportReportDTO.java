@@ -0,0 +1,28 @@
+package com.rainbow.scheduler.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Outcome of POST /api/orders/import.
+ */
+@Data
+@Builder
+public class ImportReportDTO {
+    private long linesRead;
+    private long imported;
+    private long rejected;
+    private long elapsedMs;
+    private double ordersPerSecond;
+    private boolean errorsTruncated; // More rejected lines than scheduler.import.max-reported-errors
+    private List<LineError> errors;
+
+    @Data
+    @Builder
+    public static class LineError {
+        private long line;
+        private String message;
+    }
+}
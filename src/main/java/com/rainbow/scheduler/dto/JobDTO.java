@@ -0,0 +1,28 @@
+package com.rainbow.scheduler.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of a background job, as returned by /api/jobs.
+ */
+@Data
+@Builder
+public class JobDTO {
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private String id;
+    private String type;
+    private State state;
+    private int completedSteps;
+    private int totalSteps;
+    private String message; // Last progress note, or the failure reason
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Object result; // Only on GET /api/jobs/{id} once SUCCEEDED
+}
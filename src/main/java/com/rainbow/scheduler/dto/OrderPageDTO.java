@@ -0,0 +1,18 @@
+package com.rainbow.scheduler.dto;
+
+import com.rainbow.scheduler.model.Order;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of GET /api/orders/page; pass nextCursor back as ?cursor= for the following page.
+ */
+@Data
+@Builder
+public class OrderPageDTO {
+    private List<Order> orders;
+    private String nextCursor; // null on the last page
+    private long totalOrders; // All orders, for the capacity gauge
+}
@@ -0,0 +1,24 @@
+package com.rainbow.scheduler.dto;
+
+import com.rainbow.scheduler.model.Machine;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Per-request knobs for /api/schedule/generate; null fields fall back to configuration.
+ */
+@Data
+@Builder
+public class ScheduleOptions {
+    private String strategy;
+    private Long timeBudgetMs;
+    private Long seed;
+    private List<Machine> machines;
+    private String minimize; // "minutes" or "water"
+
+    public static ScheduleOptions defaults() {
+        return ScheduleOptions.builder().build();
+    }
+}
@@ -6,22 +6,57 @@ import lombok.Data;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class ScheduleResponseDTO {
     private int optimizedCleaningTimeMinutes;
     private int fifoCleaningTimeMinutes;
+    private Integer lowerBoundCleaningTimeMinutes;
     private int timeSavedMinutes;
+    private int colorChangeovers;
+    private long totalTardinessMinutes;
+    private long idleMinutes;
+    private double objectiveScore;
+    private double totalWaterLiters;
+    private double totalChemicalWasteKg;
+    private long dyedMeters;
+    private String ecoGrade;
     private String deadlineCompliance;
     private String machineEfficiency;
+    private String strategy;
+    private Long optimizerSeed;
+    private Boolean optimizerReplayable;
     private List<SlotDTO> schedule;
+    private List<MachineScheduleDTO> machines;
+
+    /**
+     * Totals and metrics only, for pushing next to a list of changed slots.
+     */
+    public ScheduleResponseDTO withoutSlots() {
+        return toBuilder().schedule(null).machines(null).build();
+    }
 
     @Data
     @Builder
     public static class SlotDTO {
         private Long orderId;
+        private String machineId;
         private ColorFamily colorFamily;
         private String startTime;
         private String endTime;
         private int cleaningBeforeMinutes;
+        private boolean frozen;
+        private boolean continuesLot;
+        private double waterLiters;
+        private double chemicalWasteKg;
+    }
+
+    @Data
+    @Builder
+    public static class MachineScheduleDTO {
+        private String machineId;
+        private int orderCount;
+        private int cleaningMinutes;
+        private String completionTime;
+        private List<SlotDTO> slots;
     }
 }
@@ -0,0 +1,42 @@
+package com.rainbow.scheduler.dto;
+
+import com.rainbow.scheduler.model.ColorFamily;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Demand of a headless simulation (POST /api/jobs/simulations/headless): {@code cases}
+ * independent plans of {@code ordersPerCase} generated orders each. Omitted fields keep the
+ * defaults, which match the peak test cases of /api/simulations/run.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationProfile {
+    private String name;
+    @Builder.Default
+    private int cases = 10;
+    @Builder.Default
+    private int ordersPerCase = 100;
+    private Long seed; // Same seed and profile, same orders; null picks a fresh one
+    private Map<ColorFamily, Double> familyMix; // Relative weights; null or empty = uniform
+    private Double rushShare; // Share of RUSH orders, the rest split STANDARD/BULK; null = uniform
+    @Builder.Default
+    private int minDeadlineHours = 6;
+    @Builder.Default
+    private int maxDeadlineHours = 96;
+    @Builder.Default
+    private int minQuantityMeters = 100;
+    @Builder.Default
+    private int maxQuantityMeters = 1000;
+    private LocalDateTime startAt; // Orders arrive and plans start here; null = start hour of Monday 2024-01-01
+    private String strategy; // As for /api/schedule/generate
+    private Long timeBudgetMs; // Search budget per case; a case it cuts short may not replay exactly
+    private String minimize; // minutes or water, as for /api/schedule/generate
+}
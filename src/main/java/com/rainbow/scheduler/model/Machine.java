@@ -0,0 +1,27 @@
+package com.rainbow.scheduler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A jet-dyeing machine the scheduler can assign orders to.
+ * Configured under production.machines[i].* or sent with a generate request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Machine {
+    private String id;
+
+    private int dyeingSpeed; // meters per hour
+
+    @Builder.Default
+    private ColorFamily currentColorFamily = ColorFamily.WHITES_PASTELS; // Colour left in the vat
+
+    private LocalDateTime availableFrom; // null = available from the plan start
+}
@@ -8,14 +8,21 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Keyset listing (GET /api/orders/page): plain, and one per filter
+        @Index(name = "idx_orders_start_id", columnList = "scheduled_start_time, id"),
+        @Index(name = "idx_orders_status_start_id", columnList = "status, scheduled_start_time, id"),
+        @Index(name = "idx_orders_family_start_id", columnList = "color_family, scheduled_start_time, id"),
+        @Index(name = "idx_orders_run_start_id", columnList = "simulation_run_id, scheduled_start_time, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "orders_seq", allocationSize = 50) // Pooled so inserts batch
     private Long id;
 
     private String colorName;
@@ -43,6 +50,8 @@ public class Order {
 
     private Long simulationRunId; // Link to SimulationRun
 
+    private String machineId; // Dye vat the order is planned on
+
     private LocalDateTime scheduledStartTime;
     private LocalDateTime scheduledEndTime;
 }
@@ -13,16 +13,38 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Schedule {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     private LocalDateTime generatedAt;
+    private LocalDateTime planStart; // Clock the machines start from
 
     private int totalCleaningTimeMinutes;
     private int fifoCleaningTimeMinutes;
+    private Integer lowerBoundCleaningTimeMinutes; // Exact minimum, ignoring deadline priority
+
+    private int colorChangeovers;
+    private long totalTardinessMinutes; // Summed over orders ending after their deadline
+    private long idleMinutes; // Waiting between slots beyond cleaning and setup
+    private double objectiveScore; // Weighted by optimizer.objective.*
+
+    private double totalWaterLiters; // Cleaning water, eco.water-per-cleaning-minute
+    private double totalChemicalWasteKg;
+    private long dyedMeters;
+    private String ecoGrade; // Water per 1,000 m dyed against eco.grade-thresholds
+
+    private String strategy;
+    private Long optimizerSeed; // Seed the annealing ran with, for /api/schedule/generate?seed=; null without annealing
+    private Boolean optimizerReplayable; // False when the time budget stopped the search, so the seed does not replay it
+
+    @Transient
+    private List<Machine> machines; // State each machine resumed from after its frozen slots
+
+    @Transient
+    private List<ScheduleSlot> changedSlots; // Slots whose machine or times differ from before this run
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "schedule_id")
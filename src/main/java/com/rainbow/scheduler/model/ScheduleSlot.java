@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ScheduleSlot {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,6 +27,15 @@ public class ScheduleSlot {
 
     private int cleaningBeforeMinutes;
 
+    private String machineId;
+
+    private boolean frozen; // Completed or already started when the plan was generated
+
+    private boolean continuesLot; // Dyed in the same bath as the slot before: no cleaning, no setup
+
+    private double waterLiters; // Used by the cleaning before this slot
+    private double chemicalWasteKg;
+
     @Enumerated(EnumType.STRING)
     private ColorFamily colorFamily;
 }
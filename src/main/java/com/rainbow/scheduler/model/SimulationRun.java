@@ -27,4 +27,20 @@ public class SimulationRun {
     private int timeSavedMinutes;
     private int orderCount;
     private String ecoGrade;
+    private Double totalWaterLiters;
+    private Double totalChemicalWasteKg;
+
+    // Headless runs only: percentiles over all cases (cleaning minutes per case, percentages)
+    private Integer caseCount;
+    private Long seed;
+    private Long elapsedMs;
+    private Double cleaningP50;
+    private Double cleaningP90;
+    private Double cleaningP99;
+    private Double complianceP10;
+    private Double complianceP50;
+    private Double complianceP90;
+    private Double efficiencyP10;
+    private Double efficiencyP50;
+    private Double efficiencyP90;
 }
@@ -0,0 +1,463 @@
+package com.rainbow.scheduler.optimizer;
+
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Order;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Simulated annealing over the order sequence, working in place on plain arrays.
+ *
+ * Moves: swap two orders, reverse a segment (2-opt) and relocate a short segment (or-opt).
+ * Each move is scored from the transitions it touches only; the matrix is asymmetric, so
+ * 2-opt also re-prices the reversed interior, which is why its segment length is capped.
+ * Critical orders never move, and no move shifts them, so their positions are preserved.
+ * An optional end family prices the transition into whatever follows the sequence, so a
+ * window of a larger plan can be re-annealed in place.
+ * Worsening moves are accepted with probability exp(-delta / T), with T cooled
+ * geometrically from the initial to the final temperature over the budget. The run is only
+ * reproducible from its random generator when it stops on the iteration budget; the result
+ * says whether the wall clock stopped it instead.
+ *
+ * Without a timed {@link SequenceObjective} a move is scored by its weighted transitions alone.
+ * With one, the move is applied and the window it touches is re-timed from the prefix of
+ * completion times (O(window)). Later orders are assumed to shift by the change in the next
+ * start, which costs the shift once per order that is already late. Completion times are
+ * recomputed exactly from the window onward only when a move is accepted, and the reported
+ * cost is always exact.
+ */
+public final class AnnealingEngine {
+
+    private static final int MAX_REVERSAL = 32;
+    private static final int MAX_RELOCATION = 3;
+    private static final int CHECK_INTERVAL = 256;
+    private static final int NONE = -1;
+    private static final int FAMILIES = CleaningCostMatrix.FAMILIES;
+    private static final int SWAP = 0;
+    private static final int REVERSE = 1;
+    private static final int RELOCATE = 2;
+
+    private final CleaningCostMatrix matrix;
+    private final double[] transitions;
+    private final int startFamily;
+    private final int endFamily;
+    private final AnnealingSettings settings;
+    private final SequenceObjective objective; // Only set when the objective is timed
+
+    private Order[] orders;
+    private int[] families;
+    private int[] pinnedPrefix;
+    private int n;
+
+    // Timed objective only: per position, permuted with the orders
+    private long[] production;
+    private long[] due;
+    // Timed objective only: timing of the current sequence, valid up to the last accepted move
+    private long[] start;
+    private long[] end;
+    private long[] tardinessPrefix;
+    private long[] idlePrefix;
+    private int[] latePrefix;
+
+    public AnnealingEngine(CleaningCostMatrix matrix, ColorFamily startFamily, AnnealingSettings settings) {
+        this(matrix, startFamily, null, settings);
+    }
+
+    /**
+     * @param endFamily family of the order that follows the annealed sequence, null when it ends the plan
+     */
+    public AnnealingEngine(CleaningCostMatrix matrix, ColorFamily startFamily, ColorFamily endFamily,
+            AnnealingSettings settings) {
+        this(matrix, startFamily, endFamily, settings, null);
+    }
+
+    /**
+     * @param objective what to minimize; null minimizes cleaning minutes
+     */
+    public AnnealingEngine(CleaningCostMatrix matrix, ColorFamily startFamily, ColorFamily endFamily,
+            AnnealingSettings settings, SequenceObjective objective) {
+        this.matrix = matrix;
+        this.transitions = (objective == null ? ObjectiveWeights.CLEANING_ONLY : objective.weights())
+                .transitionCosts(matrix);
+        this.startFamily = startFamily.ordinal();
+        this.endFamily = endFamily == null ? NONE : endFamily.ordinal();
+        this.settings = settings;
+        this.objective = objective != null && objective.timed() ? objective : null;
+    }
+
+    public Result anneal(List<Order> initial, RandomGenerator random) {
+        load(initial);
+        double transitionCost = totalTransitionCost();
+        double cost = transitionCost + timedCost();
+        if (n - pinnedPrefix[n] < 2) {
+            return result(orders, cost, 0, 0, false);
+        }
+
+        Order[] best = new Order[n];
+        double bestCost = cost;
+        boolean currentIsBest = true;
+
+        long tried = 0;
+        long accepted = 0;
+        boolean stoppedOnTime = false;
+        long startNanos = System.nanoTime();
+        double temperature = settings.initialTemperature();
+        double cooling = settings.finalTemperature() / settings.initialTemperature();
+
+        while (true) {
+            if (tried % CHECK_INTERVAL == 0) {
+                double progress = progress(tried, System.nanoTime() - startNanos);
+                if (progress >= 1.0) {
+                    stoppedOnTime = settings.maxIterations() <= 0 || tried < settings.maxIterations();
+                    break;
+                }
+                temperature = settings.initialTemperature() * Math.pow(cooling, progress);
+            }
+            tried++;
+
+            int move;
+            int a;
+            int b;
+            int c = 0;
+            double delta;
+            int moveType = random.nextInt(10);
+            if (moveType < 4) {
+                int i = random.nextInt(n);
+                int j = random.nextInt(n);
+                if (i == j || isPinned(i) || isPinned(j)) {
+                    continue;
+                }
+                move = SWAP;
+                a = Math.min(i, j);
+                b = Math.max(i, j);
+                delta = swapDelta(a, b);
+            } else if (moveType < 7) {
+                int i = random.nextInt(n - 1);
+                int j = Math.min(n - 1, i + 1 + random.nextInt(MAX_REVERSAL - 1));
+                if (hasPinned(i, j)) {
+                    continue;
+                }
+                move = REVERSE;
+                a = i;
+                b = j;
+                delta = reversalDelta(i, j);
+            } else {
+                int len = 1 + random.nextInt(MAX_RELOCATION);
+                if (len >= n) {
+                    continue;
+                }
+                int i = random.nextInt(n - len + 1);
+                int end = i + len - 1;
+                int target = random.nextInt(n + 1);
+                if (target >= i && target <= end + 1) {
+                    continue;
+                }
+                if (target < i ? hasPinned(target, end) : hasPinned(i, target - 1)) {
+                    continue;
+                }
+                move = RELOCATE;
+                a = i;
+                b = end;
+                c = target;
+                delta = relocationDelta(i, end, target);
+            }
+
+            if (objective == null) {
+                if (!accept(delta, temperature, random)) {
+                    continue;
+                }
+                if (delta > 0 && currentIsBest) {
+                    System.arraycopy(orders, 0, best, 0, n);
+                    currentIsBest = false;
+                }
+                apply(move, a, b, c);
+                cost += delta;
+            } else {
+                int lo = move == RELOCATE ? Math.min(a, c) : a;
+                int hi = move == RELOCATE && c > b ? c - 1 : b;
+                apply(move, a, b, c);
+                if (!accept(delta + timedDelta(lo, hi), temperature, random)) {
+                    undo(move, a, b, c);
+                    continue;
+                }
+                if (currentIsBest) {
+                    // The estimate may hide a worse exact cost; keep the best sequence either way
+                    undo(move, a, b, c);
+                    System.arraycopy(orders, 0, best, 0, n);
+                    apply(move, a, b, c);
+                    currentIsBest = false;
+                }
+                retime(lo);
+                transitionCost += delta;
+                cost = transitionCost + timedCost();
+            }
+
+            accepted++;
+            if (cost < bestCost) {
+                bestCost = cost;
+                currentIsBest = true;
+            }
+        }
+
+        return result(currentIsBest ? orders : best, bestCost, tried, accepted, stoppedOnTime);
+    }
+
+    private Result result(Order[] sequence, double cost, long tried, long accepted, boolean stoppedOnTime) {
+        int cleaning = 0;
+        int last = startFamily;
+        for (Order order : sequence) {
+            cleaning += matrix.cost(last, order.getColorFamily().ordinal());
+            last = order.getColorFamily().ordinal();
+        }
+        if (sequence.length > 0 && endFamily != NONE) {
+            cleaning += matrix.cost(last, endFamily);
+        }
+        return new Result(Arrays.asList(sequence), cleaning, cost, tried, accepted, stoppedOnTime);
+    }
+
+    private void load(List<Order> initial) {
+        n = initial.size();
+        orders = initial.toArray(new Order[0]);
+        families = new int[n];
+        pinnedPrefix = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            families[i] = orders[i].getColorFamily().ordinal();
+            pinnedPrefix[i + 1] = pinnedPrefix[i] + (orders[i].isCritical() ? 1 : 0);
+        }
+        if (objective != null) {
+            production = new long[n];
+            due = new long[n];
+            for (int i = 0; i < n; i++) {
+                production[i] = objective.productionMinutes(orders[i]);
+                due[i] = objective.dueMinute(orders[i]);
+            }
+            start = new long[n];
+            end = new long[n];
+            tardinessPrefix = new long[n + 1];
+            idlePrefix = new long[n + 1];
+            latePrefix = new int[n + 1];
+            retime(0);
+        }
+    }
+
+    /**
+     * Recomputes the timing of positions {@code from} onward for the current sequence.
+     */
+    private void retime(int from) {
+        ProductionClock clock = objective.clock();
+        long free = from == 0 ? objective.startMinute() : end[from - 1];
+        int previous = previousFamily(from);
+        for (int k = from; k < n; k++) {
+            int cleaning = matrix.cost(previous, families[k]);
+            start[k] = clock.start(free, cleaning, production[k]);
+            end[k] = start[k] + production[k];
+            idlePrefix[k + 1] = idlePrefix[k] + start[k] - (free + cleaning + clock.getSetupMinutes());
+            tardinessPrefix[k + 1] = tardinessPrefix[k] + Math.max(0, end[k] - due[k]);
+            latePrefix[k + 1] = latePrefix[k] + (end[k] >= due[k] ? 1 : 0);
+            free = end[k];
+            previous = families[k];
+        }
+    }
+
+    private double timedCost() {
+        if (objective == null) {
+            return 0;
+        }
+        return objective.weights().tardiness() * tardinessPrefix[n] + objective.weights().idle() * idlePrefix[n];
+    }
+
+    /**
+     * Change of the timed terms when positions lo..hi (already rearranged) are re-timed; the
+     * timing arrays still describe the sequence before the move.
+     */
+    private double timedDelta(int lo, int hi) {
+        ProductionClock clock = objective.clock();
+        long free = lo == 0 ? objective.startMinute() : end[lo - 1];
+        int previous = previousFamily(lo);
+        long tardiness = 0;
+        long idle = 0;
+        for (int k = lo; k <= hi; k++) {
+            int cleaning = matrix.cost(previous, families[k]);
+            long begin = clock.start(free, cleaning, production[k]);
+            idle += begin - (free + cleaning + clock.getSetupMinutes());
+            free = begin + production[k];
+            tardiness += Math.max(0, free - due[k]);
+            previous = families[k];
+        }
+        long shift = 0;
+        if (hi + 1 < n) {
+            shift = clock.start(free, matrix.cost(previous, families[hi + 1]), production[hi + 1]) - start[hi + 1];
+        }
+        long lateAfter = latePrefix[n] - latePrefix[hi + 1];
+        ObjectiveWeights weights = objective.weights();
+        return weights.tardiness() * (tardiness - (tardinessPrefix[hi + 1] - tardinessPrefix[lo]) + shift * lateAfter)
+                + weights.idle() * (idle - (idlePrefix[hi + 1] - idlePrefix[lo]));
+    }
+
+    private void apply(int move, int a, int b, int c) {
+        switch (move) {
+            case SWAP -> swap(a, b);
+            case REVERSE -> reverse(a, b);
+            default -> relocate(a, b, c);
+        }
+    }
+
+    private void undo(int move, int a, int b, int c) {
+        if (move != RELOCATE) {
+            apply(move, a, b, c); // Swaps and reversals are their own inverse
+            return;
+        }
+        int len = b - a + 1;
+        if (c < a) {
+            relocate(c, c + len - 1, b + 1);
+        } else {
+            relocate(c - len, c - 1, a);
+        }
+    }
+
+    private double progress(long iterations, long elapsedNanos) {
+        double byIterations = settings.maxIterations() > 0 ? (double) iterations / settings.maxIterations() : 0;
+        double byTime = settings.timeBudgetMs() > 0 ? elapsedNanos / (settings.timeBudgetMs() * 1_000_000.0) : 0;
+        return Math.max(byIterations, byTime);
+    }
+
+    private static boolean accept(double delta, double temperature, RandomGenerator random) {
+        return delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature);
+    }
+
+    private double totalTransitionCost() {
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += cost(previousFamily(i), families[i]);
+        }
+        return n > 0 ? total + cost(families[n - 1], endFamily) : total;
+    }
+
+    /** Weighted transition from one family to the next; nothing into the open end. */
+    private double cost(int from, int to) {
+        return to == NONE ? 0 : transitions[from * FAMILIES + to];
+    }
+
+    /** Family at position i; past the end this is the fixed end family (or NONE). */
+    private int familyAt(int i) {
+        return i < n ? families[i] : endFamily;
+    }
+
+    private int previousFamily(int i) {
+        return i == 0 ? startFamily : families[i - 1];
+    }
+
+    private boolean isPinned(int i) {
+        return pinnedPrefix[i + 1] != pinnedPrefix[i];
+    }
+
+    private boolean hasPinned(int from, int to) {
+        return pinnedPrefix[to + 1] != pinnedPrefix[from];
+    }
+
+    private double swapDelta(int i, int j) {
+        int a = previousFamily(i);
+        int fi = families[i];
+        int fj = families[j];
+        int after = familyAt(j + 1);
+        if (j == i + 1) {
+            return cost(a, fj) + cost(fj, fi) + cost(fi, after)
+                    - cost(a, fi) - cost(fi, fj) - cost(fj, after);
+        }
+        int nextI = families[i + 1];
+        int prevJ = families[j - 1];
+        return cost(a, fj) + cost(fj, nextI) + cost(prevJ, fi) + cost(fi, after)
+                - cost(a, fi) - cost(fi, nextI) - cost(prevJ, fj) - cost(fj, after);
+    }
+
+    private void swap(int i, int j) {
+        Order o = orders[i];
+        orders[i] = orders[j];
+        orders[j] = o;
+        int f = families[i];
+        families[i] = families[j];
+        families[j] = f;
+        if (objective != null) {
+            long p = production[i];
+            production[i] = production[j];
+            production[j] = p;
+            long d = due[i];
+            due[i] = due[j];
+            due[j] = d;
+        }
+    }
+
+    private double reversalDelta(int i, int j) {
+        int a = previousFamily(i);
+        int after = familyAt(j + 1);
+        double delta = cost(a, families[j]) + cost(families[i], after)
+                - cost(a, families[i]) - cost(families[j], after);
+        for (int k = i + 1; k <= j; k++) {
+            delta += cost(families[k], families[k - 1]) - cost(families[k - 1], families[k]);
+        }
+        return delta;
+    }
+
+    private void reverse(int i, int j) {
+        for (; i < j; i++, j--) {
+            swap(i, j);
+        }
+    }
+
+    /** Moving [i..end] so that it sits right before the order currently at target. */
+    private double relocationDelta(int i, int end, int target) {
+        int a = previousFamily(i);
+        int b = familyAt(end + 1);
+        int head = families[i];
+        int tail = families[end];
+        double removal = cost(a, b) - cost(a, head) - cost(tail, b);
+
+        int before = target < i ? previousFamily(target) : families[target - 1];
+        int at = familyAt(target);
+        double insertion = cost(before, head) + cost(tail, at) - cost(before, at);
+        return removal + insertion;
+    }
+
+    private void relocate(int i, int end, int target) {
+        int len = end - i + 1;
+        Order[] segment = Arrays.copyOfRange(orders, i, end + 1);
+        int[] segmentFamilies = Arrays.copyOfRange(families, i, end + 1);
+        int dest = shift(orders, i, end, target);
+        shift(families, i, end, target);
+        System.arraycopy(segment, 0, orders, dest, len);
+        System.arraycopy(segmentFamilies, 0, families, dest, len);
+        if (objective != null) {
+            long[] segmentProduction = Arrays.copyOfRange(production, i, end + 1);
+            long[] segmentDue = Arrays.copyOfRange(due, i, end + 1);
+            shift(production, i, end, target);
+            shift(due, i, end, target);
+            System.arraycopy(segmentProduction, 0, production, dest, len);
+            System.arraycopy(segmentDue, 0, due, dest, len);
+        }
+    }
+
+    /** Shifts the entries between [i..end] and target over the segment; returns where the segment goes. */
+    private static int shift(Object array, int i, int end, int target) {
+        int len = end - i + 1;
+        if (target < i) {
+            System.arraycopy(array, target, array, target + len, i - target);
+            return target;
+        }
+        System.arraycopy(array, end + 1, array, i, target - end - 1);
+        return target - len;
+    }
+
+    /**
+     * @param sequence        best sequence found
+     * @param cleaningMinutes total cleaning time of that sequence
+     * @param cost            objective value of that sequence (cleaning minutes without an objective)
+     * @param movesTried      candidate moves drawn
+     * @param movesAccepted   moves applied (improving or accepted by temperature)
+     * @param stoppedOnTime   the time budget ended the run before the iteration budget
+     */
+    public record Result(List<Order> sequence, int cleaningMinutes, double cost, long movesTried,
+            long movesAccepted, boolean stoppedOnTime) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.rainbow.scheduler.optimizer;
+
+/**
+ * Budget and cooling schedule for one annealing run.
+ * A run stops at whichever of the two budgets is hit first; a budget of 0 disables it.
+ *
+ * @param maxIterations      number of candidate moves to evaluate
+ * @param timeBudgetMs       wall-clock budget in milliseconds
+ * @param initialTemperature temperature at the start of the run (in cleaning minutes)
+ * @param finalTemperature   temperature reached when the budget is exhausted
+ */
+public record AnnealingSettings(long maxIterations, long timeBudgetMs, double initialTemperature,
+        double finalTemperature) {
+
+    public AnnealingSettings {
+        if (maxIterations <= 0 && timeBudgetMs <= 0) {
+            throw new IllegalArgumentException("Annealing needs an iteration budget or a time budget");
+        }
+        if (initialTemperature <= 0 || finalTemperature <= 0 || finalTemperature > initialTemperature) {
+            throw new IllegalArgumentException("Annealing temperatures must satisfy 0 < final <= initial");
+        }
+    }
+}
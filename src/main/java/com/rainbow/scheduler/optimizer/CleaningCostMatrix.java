@@ -0,0 +1,74 @@
+package com.rainbow.scheduler.optimizer;
+
+import com.rainbow.scheduler.model.ColorFamily;
+
+import java.util.Map;
+
+/**
+ * Immutable cleaning-time lookup table.
+ * Costs live in a flat int[] indexed by (from.ordinal() * FAMILIES + to.ordinal()),
+ * so the scheduler hot loops can read a transition without any branching.
+ */
+public final class CleaningCostMatrix {
+
+    public static final int FAMILIES = ColorFamily.values().length;
+
+    /**
+     * Industrial Cleaning Matrix (rows = from, columns = to):
+     * - Same Family: 2 mins (Simple reset)
+     * - Moving Darker (Light -> Dark): 10-15 mins
+     * - Moving Lighter (Dark -> Light): 30-45 mins (Deep purge)
+     * - White <-> Black: 60 mins (Extreme penalty)
+     */
+    private static final int[] INDUSTRIAL = {
+            // WHITE LIGHT MEDIUM DARK BLACK
+            2, 10, 15, 25, 60, // from WHITES_PASTELS
+            30, 2, 10, 15, 45, // from LIGHT_COLORS
+            40, 20, 2, 10, 15, // from MEDIUM_COLORS
+            50, 35, 25, 2, 10, // from DARK_COLORS
+            60, 50, 40, 30, 2 // from BLACKS_DEEP_DARKS
+    };
+
+    private final int[] costs;
+
+    private CleaningCostMatrix(int[] costs) {
+        this.costs = costs;
+    }
+
+    public static CleaningCostMatrix industrialDefault() {
+        return new CleaningCostMatrix(INDUSTRIAL.clone());
+    }
+
+    /**
+     * Returns a new matrix with the given transitions replaced; this matrix is left untouched.
+     */
+    public CleaningCostMatrix withOverrides(Map<ColorFamily, Map<ColorFamily, Integer>> overrides) {
+        if (overrides == null || overrides.isEmpty()) {
+            return this;
+        }
+        int[] copy = costs.clone();
+        overrides.forEach((from, row) -> row.forEach((to, minutes) -> {
+            if (minutes == null || minutes < 0) {
+                throw new IllegalArgumentException(
+                        "Cleaning time for " + from + " -> " + to + " must be a non-negative number of minutes");
+            }
+            copy[index(from.ordinal(), to.ordinal())] = minutes;
+        }));
+        return new CleaningCostMatrix(copy);
+    }
+
+    public int cost(ColorFamily from, ColorFamily to) {
+        return costs[index(from.ordinal(), to.ordinal())];
+    }
+
+    /**
+     * Ordinal-based lookup for the optimizer inner loops.
+     */
+    public int cost(int fromOrdinal, int toOrdinal) {
+        return costs[fromOrdinal * FAMILIES + toOrdinal];
+    }
+
+    private static int index(int from, int to) {
+        return from * FAMILIES + to;
+    }
+}
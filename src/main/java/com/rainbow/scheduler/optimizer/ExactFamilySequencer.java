@@ -0,0 +1,185 @@
+package com.rainbow.scheduler.optimizer;
+
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Order;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Minimum-cleaning ordering of a set of orders, solved exactly.
+ *
+ * Cleaning only depends on consecutive families, so a sequence is a walk over family runs.
+ * With c[f] orders and r[f] runs of family f the total is
+ * sum(c[f] * self[f]) + sum over run steps of (cost(prev, next) - self[next]),
+ * which is a shortest path over states (families visited, last family, runs used per family).
+ * A family may be split into several runs when it is a cheaper bridge between two others,
+ * as long as it has an order for every run. Dijkstra needs non-negative step weights, i.e.
+ * switching into a family is never cheaper than staying in it; {@link #supports} checks that.
+ */
+public final class ExactFamilySequencer {
+
+    private static final int FAMILIES = CleaningCostMatrix.FAMILIES;
+    private static final int START = FAMILIES;
+    private static final int RUN_BITS = 3;
+    private static final int RUN_CAP = (1 << RUN_BITS) - 1;
+    private static final int LAST_SHIFT = FAMILIES;
+    private static final int RUNS_SHIFT = FAMILIES + 3;
+
+    private final CleaningCostMatrix matrix;
+
+    public ExactFamilySequencer(CleaningCostMatrix matrix) {
+        this.matrix = matrix;
+    }
+
+    /**
+     * True when leaving a family never costs less than a same-family reset, which keeps
+     * the step weights non-negative (holds for the industrial matrix).
+     */
+    public static boolean supports(CleaningCostMatrix matrix) {
+        for (int from = 0; from < FAMILIES; from++) {
+            for (int to = 0; to < FAMILIES; to++) {
+                if (matrix.cost(from, to) < matrix.cost(to, to)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Optimal order of the given orders after a machine left in {@code startFamily}.
+     * Inside each family run orders are laid out earliest deadline first.
+     */
+    public Optional<Result> sequence(List<Order> orders, ColorFamily startFamily) {
+        if (!supports(matrix)) {
+            return Optional.empty();
+        }
+        if (orders.isEmpty()) {
+            return Optional.of(new Result(List.of(), 0));
+        }
+
+        List<List<Order>> byFamily = new ArrayList<>(FAMILIES);
+        for (int f = 0; f < FAMILIES; f++) {
+            byFamily.add(new ArrayList<>());
+        }
+        for (Order order : orders) {
+            byFamily.get(order.getColorFamily().ordinal()).add(order);
+        }
+        int[] counts = new int[FAMILIES];
+        int present = 0;
+        int base = 0;
+        for (int f = 0; f < FAMILIES; f++) {
+            counts[f] = byFamily.get(f).size();
+            if (counts[f] > 0) {
+                present |= 1 << f;
+                base += counts[f] * matrix.cost(f, f);
+            }
+        }
+
+        int[] walk = shortestWalk(startFamily.ordinal(), counts, present);
+        int cleaning = base;
+        int prev = startFamily.ordinal();
+        for (int family : walk) {
+            cleaning += matrix.cost(prev, family) - matrix.cost(family, family);
+            prev = family;
+        }
+        return Optional.of(new Result(layout(walk, byFamily), cleaning));
+    }
+
+    /**
+     * Dijkstra over packed states: visited mask | last family | 3-bit run counters.
+     * With non-negative weights an optimal walk uses each family at most once plus once per
+     * shortest-path segment crossing it, so 7 runs per family never cuts off the optimum.
+     */
+    private int[] shortestWalk(int startFamily, int[] counts, int present) {
+        int initial = START << LAST_SHIFT;
+        Map<Integer, Integer> dist = new HashMap<>();
+        Map<Integer, Integer> parent = new HashMap<>();
+        PriorityQueue<long[]> queue = new PriorityQueue<>(Comparator.comparingLong(e -> e[0]));
+        dist.put(initial, 0);
+        queue.add(new long[] { 0, initial });
+
+        int goal = -1;
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int state = (int) entry[1];
+            if (entry[0] > dist.get(state)) {
+                continue;
+            }
+            int mask = state & ((1 << FAMILIES) - 1);
+            if (mask == present) {
+                goal = state;
+                break;
+            }
+            int last = (state >>> LAST_SHIFT) & 0x7;
+            int from = last == START ? startFamily : last;
+            for (int next = 0; next < FAMILIES; next++) {
+                if (next == last || counts[next] == 0) {
+                    continue;
+                }
+                int runs = runsOf(state, next);
+                if (runs >= Math.min(counts[next], RUN_CAP)) {
+                    continue;
+                }
+                int nextState = (mask | (1 << next)) | (next << LAST_SHIFT)
+                        | ((state >>> RUNS_SHIFT) + (1 << (next * RUN_BITS))) << RUNS_SHIFT;
+                int nextDist = (int) entry[0] + matrix.cost(from, next) - matrix.cost(next, next);
+                Integer known = dist.get(nextState);
+                if (known == null || nextDist < known) {
+                    dist.put(nextState, nextDist);
+                    parent.put(nextState, state);
+                    queue.add(new long[] { nextDist, nextState });
+                }
+            }
+        }
+
+        Deque<Integer> walk = new ArrayDeque<>();
+        for (int state = goal; state != initial; state = parent.get(state)) {
+            walk.addFirst((state >>> LAST_SHIFT) & 0x7);
+        }
+        return walk.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int runsOf(int state, int family) {
+        return (state >>> (RUNS_SHIFT + family * RUN_BITS)) & RUN_CAP;
+    }
+
+    /**
+     * The first run of a family takes its bulk (earliest deadlines first); any extra
+     * bridging runs take one order each from the tail.
+     */
+    private static List<Order> layout(int[] walk, List<List<Order>> byFamily) {
+        int[] runs = new int[FAMILIES];
+        for (int family : walk) {
+            runs[family]++;
+        }
+        int[] taken = new int[FAMILIES];
+        List<Order> sequence = new ArrayList<>();
+        for (int family : walk) {
+            List<Order> orders = byFamily.get(family);
+            if (taken[family] == 0) {
+                orders.sort(Comparator.comparingInt(Order::getDeadlineHours)
+                        .thenComparing(Order::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+            }
+            int size = taken[family] == 0 ? orders.size() - (runs[family] - 1) : 1;
+            sequence.addAll(orders.subList(taken[family], taken[family] + size));
+            taken[family] += size;
+        }
+        return sequence;
+    }
+
+    /**
+     * @param sequence        optimal order
+     * @param cleaningMinutes its (minimum) total cleaning time
+     */
+    public record Result(List<Order> sequence, int cleaningMinutes) {
+    }
+}
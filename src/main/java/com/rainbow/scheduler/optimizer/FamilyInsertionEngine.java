@@ -0,0 +1,235 @@
+package com.rainbow.scheduler.optimizer;
+
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Order;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cheapest-insertion sequencing over an array-backed sequence.
+ *
+ * The extra cleaning caused by inserting an order at position i only depends on the
+ * transition type (prevFamily -> currentFamily) at that boundary, so instead of scanning
+ * every position the engine keeps, per transition type, how many boundaries of that type
+ * exist and the earliest one. Each insertion evaluates at most FAMILIES^2 candidates and
+ * picks the same position the position-by-position scan would (earliest wins ties).
+ *
+ * Transitions are priced with the objective's cleaning and changeover weights. With a timed
+ * objective the inserted order's own tardiness at each candidate is added. Its start comes from
+ * completion times that are kept as a prefix and recomputed lazily, only up to the candidate
+ * being priced. The end of the sequence is tracked as a running estimate. Orders pushed back
+ * by an insertion are left to the annealer.
+ */
+public final class FamilyInsertionEngine {
+
+    private static final int FAMILIES = CleaningCostMatrix.FAMILIES;
+    private static final int TYPES = FAMILIES * FAMILIES;
+    private static final int NONE = Integer.MAX_VALUE;
+
+    private final CleaningCostMatrix matrix;
+    private final double[] transitions;
+    private final int startFamily;
+    private final int criticalWindow;
+    private final SequenceObjective objective; // Only set when the objective is timed
+
+    private final int[] firstBoundary = new int[TYPES];
+    private final int[] boundaryCount = new int[TYPES];
+    private Order[] orders;
+    private int[] families;
+    private int size;
+
+    // Timed objective only
+    private long[] production;
+    private long[] ends; // Completion times, valid below timedUpTo
+    private int timedUpTo;
+    private long tailEnd; // Completion of the last order, exact while timedUpTo == size
+
+    /**
+     * @param startFamily    colour state of the machine before the first order
+     * @param criticalWindow critical orders may only be inserted before this position
+     */
+    public FamilyInsertionEngine(CleaningCostMatrix matrix, ColorFamily startFamily, int criticalWindow) {
+        this(matrix, startFamily, criticalWindow, null);
+    }
+
+    /**
+     * @param objective what to minimize; null minimizes cleaning minutes
+     */
+    public FamilyInsertionEngine(CleaningCostMatrix matrix, ColorFamily startFamily, int criticalWindow,
+            SequenceObjective objective) {
+        this.matrix = matrix;
+        this.transitions = (objective == null ? ObjectiveWeights.CLEANING_ONLY : objective.weights())
+                .transitionCosts(matrix);
+        this.startFamily = startFamily.ordinal();
+        this.criticalWindow = criticalWindow;
+        this.objective = objective != null && objective.timed() ? objective : null;
+    }
+
+    public List<Order> insertAll(List<Order> baseSeq) {
+        orders = new Order[baseSeq.size()];
+        families = new int[baseSeq.size()];
+        size = 0;
+        Arrays.fill(firstBoundary, NONE);
+        Arrays.fill(boundaryCount, 0);
+        if (objective != null) {
+            production = new long[baseSeq.size()];
+            ends = new long[baseSeq.size()];
+            timedUpTo = 0;
+            tailEnd = objective.startMinute();
+        }
+
+        for (Order order : baseSeq) {
+            insert(order);
+        }
+        return Arrays.asList(orders);
+    }
+
+    private void insert(Order order) {
+        int family = order.getColorFamily().ordinal();
+        long orderProduction = objective == null ? 0 : objective.productionMinutes(order);
+        long due = objective == null ? 0 : objective.dueMinute(order);
+        if (size == 0) {
+            insertAt(0, order, family, orderProduction);
+            return;
+        }
+
+        int bestPos = size;
+        double minAddedCost = transition(families[size - 1], family)
+                + tardiness(tailEnd, families[size - 1], family, orderProduction, due);
+        for (int type = 0; type < TYPES; type++) {
+            if (boundaryCount[type] == 0) {
+                continue;
+            }
+            int pos = firstBoundary[type];
+            if (order.isCritical() && pos >= criticalWindow) {
+                continue;
+            }
+            int prev = type / FAMILIES;
+            int current = type % FAMILIES;
+            double addedCost = transition(prev, family) + transition(family, current) - transition(prev, current);
+            if (objective != null) {
+                addedCost += tardiness(freeAt(pos), prev, family, orderProduction, due);
+            }
+            if (addedCost < minAddedCost
+                    || (addedCost == minAddedCost && bestPos != size && pos < bestPos)) {
+                minAddedCost = addedCost;
+                bestPos = pos;
+            }
+        }
+        insertAt(bestPos, order, family, orderProduction);
+    }
+
+    private double transition(int from, int to) {
+        return transitions[from * FAMILIES + to];
+    }
+
+    /**
+     * Weighted tardiness of an order started on a machine free at {@code free}; 0 without a timed objective.
+     */
+    private double tardiness(long free, int previous, int family, long orderProduction, long due) {
+        if (objective == null) {
+            return 0;
+        }
+        long end = objective.clock().start(free, matrix.cost(previous, family), orderProduction) + orderProduction;
+        return objective.weights().tardiness() * Math.max(0, end - due);
+    }
+
+    /**
+     * When the machine is free for an order inserted at {@code pos}, timing the prefix as far as needed.
+     */
+    private long freeAt(int pos) {
+        if (pos == 0) {
+            return objective.startMinute();
+        }
+        for (; timedUpTo < pos; timedUpTo++) {
+            long free = timedUpTo == 0 ? objective.startMinute() : ends[timedUpTo - 1];
+            int previous = timedUpTo == 0 ? startFamily : families[timedUpTo - 1];
+            ends[timedUpTo] = objective.clock().start(free, matrix.cost(previous, families[timedUpTo]),
+                    production[timedUpTo]) + production[timedUpTo];
+        }
+        return ends[pos - 1];
+    }
+
+    private void insertAt(int pos, Order order, int family, long orderProduction) {
+        int prev = pos == 0 ? startFamily : families[pos - 1];
+        if (objective != null) {
+            retimeTail(pos, prev, family, orderProduction);
+        }
+        if (pos == size) {
+            orders[size] = order;
+            families[size] = family;
+            size++;
+            addBoundary(prev * FAMILIES + family, pos);
+            return;
+        }
+
+        int current = families[pos];
+        int replacedType = prev * FAMILIES + current;
+        boolean replacedWasFirst = firstBoundary[replacedType] == pos;
+        boundaryCount[replacedType]--;
+
+        System.arraycopy(orders, pos, orders, pos + 1, size - pos);
+        System.arraycopy(families, pos, families, pos + 1, size - pos);
+        if (objective != null) {
+            System.arraycopy(production, pos, production, pos + 1, size - pos);
+            production[pos] = orderProduction;
+        }
+        orders[pos] = order;
+        families[pos] = family;
+        size++;
+
+        for (int type = 0; type < TYPES; type++) {
+            if (firstBoundary[type] != NONE && firstBoundary[type] >= pos) {
+                firstBoundary[type]++;
+            }
+        }
+        if (replacedWasFirst) {
+            firstBoundary[replacedType] = NONE;
+        }
+
+        addBoundary(prev * FAMILIES + family, pos);
+        addBoundary(family * FAMILIES + current, pos + 1);
+
+        if (firstBoundary[replacedType] == NONE && boundaryCount[replacedType] > 0) {
+            firstBoundary[replacedType] = findBoundary(replacedType, pos + 2);
+        }
+    }
+
+    /**
+     * Keeps the completion times below the insertion and moves the tail estimate by the time the
+     * insertion adds: the order itself plus the change in cleaning before the next one.
+     */
+    private void retimeTail(int pos, int prev, int family, long orderProduction) {
+        if (pos == size) {
+            production[pos] = orderProduction;
+            long free = pos == 0 ? objective.startMinute() : tailEnd;
+            tailEnd = objective.clock().start(free, matrix.cost(prev, family), orderProduction) + orderProduction;
+            if (timedUpTo == pos) {
+                ends[pos] = tailEnd;
+                timedUpTo++;
+            }
+            return;
+        }
+        int current = families[pos];
+        tailEnd += matrix.cost(prev, family) + objective.clock().getSetupMinutes() + orderProduction
+                + matrix.cost(family, current) - matrix.cost(prev, current);
+        timedUpTo = Math.min(timedUpTo, pos);
+    }
+
+    private void addBoundary(int type, int pos) {
+        boundaryCount[type]++;
+        if (pos < firstBoundary[type]) {
+            firstBoundary[type] = pos;
+        }
+    }
+
+    private int findBoundary(int type, int from) {
+        for (int i = Math.max(from, 1); i < size; i++) {
+            if (families[i - 1] * FAMILIES + families[i] == type) {
+                return i;
+            }
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,44 @@
+package com.rainbow.scheduler.optimizer;
+
+/**
+ * Weights of the sequencing objective, in cleaning-minute equivalents so annealing
+ * temperatures keep their meaning:
+ * cleaning * cleaning minutes + changeover * colour changes
+ * + tardiness * minutes past deadlines + idle * minutes a machine waits beyond cleaning and setup.
+ *
+ * @param cleaning   per cleaning minute
+ * @param changeover per change of colour family between consecutive orders
+ * @param tardiness  per minute an order ends after its deadline
+ * @param idle       per minute of overnight or other waiting
+ */
+public record ObjectiveWeights(double cleaning, double changeover, double tardiness, double idle) {
+
+    public static final ObjectiveWeights CLEANING_ONLY = new ObjectiveWeights(1, 0, 0, 0);
+
+    public ObjectiveWeights {
+        if (cleaning < 0 || changeover < 0 || tardiness < 0 || idle < 0) {
+            throw new IllegalArgumentException("Objective weights must not be negative");
+        }
+    }
+
+    /**
+     * Whether the objective depends on when orders run, not just on their order.
+     */
+    public boolean timed() {
+        return tardiness > 0 || idle > 0;
+    }
+
+    /**
+     * Weighted cost of every family transition, indexed from * FAMILIES + to.
+     */
+    double[] transitionCosts(CleaningCostMatrix matrix) {
+        int families = CleaningCostMatrix.FAMILIES;
+        double[] costs = new double[families * families];
+        for (int from = 0; from < families; from++) {
+            for (int to = 0; to < families; to++) {
+                costs[from * families + to] = cleaning * matrix.cost(from, to) + (from != to ? changeover : 0);
+            }
+        }
+        return costs;
+    }
+}
@@ -0,0 +1,105 @@
+package com.rainbow.scheduler.optimizer;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The production day of SchedulingService.mapToSlots in plain minutes, so optimizers can time a
+ * sequence without allocating LocalDateTimes. A minute value is a LocalDateTime read as UTC,
+ * divided into whole minutes since the epoch.
+ *
+ * An order starts after cleaning and setup. With a {@link ShiftCalendar} it then waits for the
+ * first shift it fits in. Without one the plant runs a fixed daily window: a start before the
+ * start hour moves to the start hour of the next day, and an order that would end before the
+ * start hour (past midnight) moves to the start hour of the day after its start.
+ */
+public final class ProductionClock {
+
+    private static final int DAY = 24 * 60;
+
+    private final int startMinute;
+    private final int setupMinutes;
+    private final ShiftCalendar calendar; // Null for the fixed daily window
+
+    public ProductionClock(int startHour, int setupMinutes) {
+        this.startMinute = startHour * 60;
+        this.setupMinutes = setupMinutes;
+        this.calendar = null;
+    }
+
+    public ProductionClock(ShiftCalendar calendar, int setupMinutes) {
+        this.startMinute = 0;
+        this.setupMinutes = setupMinutes;
+        this.calendar = calendar;
+    }
+
+    public static long toMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    public static LocalDateTime toDateTime(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * {@code minute} with the seconds of {@code origin}. The day rules only ever move whole
+     * minutes, so times planned from {@code origin} keep its sub-minute part.
+     */
+    public static LocalDateTime toDateTime(long minute, LocalDateTime origin) {
+        return LocalDateTime.ofEpochSecond(minute * 60 + origin.getSecond(), origin.getNano(), ZoneOffset.UTC);
+    }
+
+    /**
+     * Whole minutes from one time to the other, truncated as Duration.between(from, to).toMinutes().
+     */
+    public static long minutesBetween(LocalDateTime from, LocalDateTime to) {
+        long seconds = to.toEpochSecond(ZoneOffset.UTC) - from.toEpochSecond(ZoneOffset.UTC);
+        if (to.getNano() < from.getNano()) {
+            seconds--;
+        }
+        return seconds / 60;
+    }
+
+    /**
+     * Production minutes as mapToSlots truncates them.
+     */
+    public static long productionMinutes(int quantityMeters, int dyeingSpeed) {
+        return (long) ((double) quantityMeters / dyeingSpeed * 60);
+    }
+
+    public int getSetupMinutes() {
+        return setupMinutes;
+    }
+
+    /**
+     * Start of an order on a machine that is free at {@code free}.
+     */
+    public long start(long free, int cleaningMinutes, long productionMinutes) {
+        return window(free + cleaningMinutes + setupMinutes, productionMinutes);
+    }
+
+    /**
+     * First start at or after {@code earliest} at which a job of {@code productionMinutes} may run.
+     */
+    public long window(long earliest, long productionMinutes) {
+        if (calendar != null) {
+            return calendar.nextStart(earliest, productionMinutes);
+        }
+        long start = earliest;
+        if (minuteOfDay(start) < startMinute) {
+            start = dayOf(start) + DAY + startMinute;
+        }
+        if (minuteOfDay(start + productionMinutes) < startMinute) {
+            start = dayOf(start) + DAY + startMinute;
+        }
+        return start;
+    }
+
+    private static long dayOf(long minute) {
+        return minute - minuteOfDay(minute);
+    }
+
+    private static int minuteOfDay(long minute) {
+        return (int) Math.floorMod(minute, DAY);
+    }
+}
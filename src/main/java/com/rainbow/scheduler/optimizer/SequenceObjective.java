@@ -0,0 +1,33 @@
+package com.rainbow.scheduler.optimizer;
+
+import com.rainbow.scheduler.model.Order;
+
+import java.time.LocalDateTime;
+
+/**
+ * What a sequence on one machine is scored by: the weights, and for the timed terms the
+ * machine's clock (free at {@code startMinute}, running at {@code dyeingSpeed}).
+ */
+public record SequenceObjective(ObjectiveWeights weights, ProductionClock clock, long startMinute,
+        int dyeingSpeed) {
+
+    public static SequenceObjective of(ObjectiveWeights weights, ProductionClock clock, LocalDateTime machineStart,
+            int dyeingSpeed) {
+        return new SequenceObjective(weights, clock, ProductionClock.toMinute(machineStart), dyeingSpeed);
+    }
+
+    public long productionMinutes(Order order) {
+        return ProductionClock.productionMinutes(order.getQuantityMeters(), dyeingSpeed);
+    }
+
+    /**
+     * An order is on time when it ends strictly before this minute.
+     */
+    public long dueMinute(Order order) {
+        return ProductionClock.toMinute(order.getCreatedAt().plusHours(order.getDeadlineHours()));
+    }
+
+    public boolean timed() {
+        return weights.timed();
+    }
+}
@@ -0,0 +1,295 @@
+package com.rainbow.scheduler.optimizer;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * When the dye house runs, in {@link ProductionClock} minutes: shifts per weekday, minus
+ * holidays and maintenance windows. Open time is precomputed into sorted, merged intervals
+ * with a max-length segment tree over them, so the next start for a job of N minutes is two
+ * binary searches, O(log n), however far ahead the plan reaches.
+ *
+ * The index covers the horizon and every holiday and maintenance window; outside it only the
+ * weekly shifts apply, answered from an index of three plain weeks shifted by whole weeks.
+ * A job cannot be dyed in parts, so it must fit in one open interval; a job longer than every
+ * shift starts with the next shift and runs over.
+ */
+public final class ShiftCalendar {
+
+    private static final int DAY = 24 * 60;
+    private static final int WEEK = 7 * DAY;
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final Index horizon;
+    private final Index weeks;
+    private final long anchor; // Monday 00:00 before the first holiday or maintenance window
+    private final long end; // Nothing is blocked from here on
+    private final long longest;
+
+    private ShiftCalendar(Index horizon, Index weeks, long anchor, long end) {
+        this.horizon = horizon;
+        this.weeks = weeks;
+        this.anchor = anchor;
+        this.end = end;
+        this.longest = weeks.longest();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Earliest start at or after {@code earliest} for a job of {@code minutes}.
+     */
+    public long nextStart(long earliest, long minutes) {
+        boolean fits = minutes <= longest;
+        if (earliest < anchor - WEEK) {
+            long start = weekly(earliest, minutes, fits);
+            if (start + (fits ? minutes : 0) <= anchor) {
+                return start; // Nothing is blocked before the anchor
+            }
+            earliest = anchor - WEEK;
+        }
+        if (earliest < end) {
+            long start = fits ? horizon.find(earliest, minutes) : horizon.nextOpen(earliest);
+            if (start != NONE) {
+                return start;
+            }
+            earliest = end;
+        }
+        return weekly(earliest, minutes, fits);
+    }
+
+    private long weekly(long earliest, long minutes, boolean fits) {
+        long shift = Math.floorDiv(earliest - anchor, WEEK) * WEEK;
+        return (fits ? weeks.find(earliest - shift, minutes) : weeks.nextOpen(earliest - shift)) + shift;
+    }
+
+    /**
+     * Longest stretch of open time in the weekly shifts.
+     */
+    public long longestShiftMinutes() {
+        return longest;
+    }
+
+    public static final class Builder {
+
+        private final List<List<int[]>> shifts = new ArrayList<>();
+        private final List<long[]> blocked = new ArrayList<>();
+
+        private Builder() {
+            for (int i = 0; i < 7; i++) {
+                shifts.add(new ArrayList<>());
+            }
+        }
+
+        /**
+         * A shift starting on {@code day}; it may run past midnight into the next day.
+         */
+        public Builder shift(DayOfWeek day, LocalTime start, int minutes) {
+            if (minutes <= 0 || minutes > DAY) {
+                throw new IllegalArgumentException("A shift lasts between 1 minute and 24 hours");
+            }
+            shifts.get(day.ordinal()).add(new int[] { start.toSecondOfDay() / 60, minutes });
+            return this;
+        }
+
+        public Builder holiday(LocalDate date) {
+            long day = ProductionClock.toMinute(date.atStartOfDay());
+            blocked.add(new long[] { day, day + DAY });
+            return this;
+        }
+
+        public Builder maintenance(LocalDateTime from, LocalDateTime to) {
+            if (!to.isAfter(from)) {
+                throw new IllegalArgumentException("Maintenance must end after it starts: " + from + " - " + to);
+            }
+            blocked.add(new long[] { ProductionClock.toMinute(from), ProductionClock.toMinute(to) });
+            return this;
+        }
+
+        /**
+         * Indexes the open time from the Monday before {@code from} (or before the first
+         * holiday or maintenance window, if earlier) until {@code horizonDays} after
+         * {@code from} (or the end of the last window, if later).
+         *
+         * @throws IllegalStateException when no shift is defined
+         */
+        public ShiftCalendar build(LocalDate from, int horizonDays) {
+            LocalDate first = from;
+            for (long[] window : blocked) {
+                LocalDate day = ProductionClock.toDateTime(window[0]).toLocalDate();
+                first = day.isBefore(first) ? day : first;
+            }
+            long anchor = ProductionClock.toMinute(first.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                    .atStartOfDay());
+            Index weeks = new Index(open(anchor, 21, List.of()));
+            if (weeks.size() == 0) {
+                throw new IllegalStateException("A shift calendar needs at least one shift");
+            }
+            long end = ProductionClock.toMinute(from.plusDays(horizonDays).atStartOfDay());
+            for (long[] window : blocked) {
+                end = Math.max(end, window[1]);
+            }
+            // A week either side so intervals running over the ends of the horizon are whole
+            int days = (int) ((end - anchor + DAY - 1) / DAY) + 14;
+            return new ShiftCalendar(new Index(open(anchor - WEEK, days, merge(blocked))), weeks, anchor, end);
+        }
+
+        /**
+         * Shifts of {@code days} days from the Monday {@code anchor} (plus the night shift
+         * running into it), merged and with the blocked windows cut out.
+         */
+        private List<long[]> open(long anchor, int days, List<long[]> closed) {
+            List<long[]> intervals = new ArrayList<>();
+            for (int day = -1; day < days; day++) {
+                for (int[] shift : shifts.get(Math.floorMod(day, 7))) {
+                    long start = anchor + (long) day * DAY + shift[0];
+                    intervals.add(new long[] { start, start + shift[1] });
+                }
+            }
+            List<long[]> open = new ArrayList<>();
+            int next = 0;
+            for (long[] interval : merge(intervals)) {
+                long start = interval[0];
+                while (next < closed.size() && closed.get(next)[1] <= start) {
+                    next++;
+                }
+                for (int k = next; k < closed.size() && closed.get(k)[0] < interval[1]; k++) {
+                    if (closed.get(k)[0] > start) {
+                        open.add(new long[] { start, closed.get(k)[0] });
+                    }
+                    start = Math.max(start, closed.get(k)[1]);
+                }
+                if (start < interval[1]) {
+                    open.add(new long[] { start, interval[1] });
+                }
+            }
+            return open;
+        }
+
+        private static List<long[]> merge(List<long[]> intervals) {
+            List<long[]> sorted = new ArrayList<>(intervals);
+            sorted.sort(Comparator.comparingLong(interval -> interval[0]));
+            List<long[]> merged = new ArrayList<>();
+            for (long[] interval : sorted) {
+                long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                if (last != null && interval[0] <= last[1]) {
+                    last[1] = Math.max(last[1], interval[1]);
+                } else {
+                    merged.add(new long[] { interval[0], interval[1] });
+                }
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * Sorted, disjoint open intervals with a segment tree of their lengths.
+     */
+    private static final class Index {
+
+        private final long[] open;
+        private final long[] close;
+        private final long[] tree;
+        private final int leaves;
+
+        Index(List<long[]> intervals) {
+            int n = intervals.size();
+            open = new long[n];
+            close = new long[n];
+            int size = 1;
+            while (size < n) {
+                size <<= 1;
+            }
+            leaves = size;
+            tree = new long[2 * size];
+            Arrays.fill(tree, -1);
+            for (int i = 0; i < n; i++) {
+                open[i] = intervals.get(i)[0];
+                close[i] = intervals.get(i)[1];
+                tree[size + i] = close[i] - open[i];
+            }
+            for (int node = size - 1; node >= 1; node--) {
+                tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        int size() {
+            return open.length;
+        }
+
+        long longest() {
+            return tree[1];
+        }
+
+        /**
+         * Earliest start at or after {@code earliest} that leaves {@code minutes} before the interval closes.
+         */
+        long find(long earliest, long minutes) {
+            int i = firstClosingAfter(earliest);
+            if (i == open.length) {
+                return NONE;
+            }
+            if (open[i] <= earliest) {
+                if (close[i] - earliest >= minutes) {
+                    return earliest;
+                }
+                i++;
+            }
+            int j = firstAtLeast(1, 0, leaves - 1, i, minutes);
+            return j < 0 || j >= open.length ? NONE : open[j];
+        }
+
+        /**
+         * Start of the first interval opening at or after {@code earliest}.
+         */
+        long nextOpen(long earliest) {
+            int lo = 0;
+            int hi = open.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (open[mid] < earliest) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo == open.length ? NONE : open[lo];
+        }
+
+        private int firstClosingAfter(long minute) {
+            int lo = 0;
+            int hi = close.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (close[mid] <= minute) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /** First interval at index {@code from} or later lasting at least {@code minutes}; -1 if none. */
+        private int firstAtLeast(int node, int lo, int hi, int from, long minutes) {
+            if (hi < from || tree[node] < minutes) {
+                return -1;
+            }
+            if (lo == hi) {
+                return lo;
+            }
+            int mid = (lo + hi) >>> 1;
+            int left = firstAtLeast(2 * node, lo, mid, from, minutes);
+            return left >= 0 ? left : firstAtLeast(2 * node + 1, mid + 1, hi, from, minutes);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.rainbow.scheduler.optimizer;
+
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Order;
+
+import java.util.List;
+
+/**
+ * Planned timing as parallel primitive arrays: start and end in {@link ProductionClock}
+ * minutes, the cleaning before each order and the index of the machine it runs on. Runs are
+ * appended one machine at a time in a single pass that allocates nothing, so a sequence can be
+ * timed as often as a caller likes; ScheduleSlots are only built for the timeline that is kept.
+ */
+public final class SlotTimeline {
+
+    private final long[] start;
+    private final long[] end;
+    private final int[] cleaning;
+    private final int[] machine;
+    private int size;
+
+    public SlotTimeline(int capacity) {
+        start = new long[capacity];
+        end = new long[capacity];
+        cleaning = new int[capacity];
+        machine = new int[capacity];
+    }
+
+    /**
+     * Times {@code sequence} back to back on one machine that is free from {@code free} and
+     * holds {@code startFamily}.
+     *
+     * @return the minute the machine is free again
+     * @throws IllegalStateException when the timeline has no room for the sequence
+     */
+    public long append(int machineIndex, List<Order> sequence, CleaningCostMatrix matrix, ColorFamily startFamily,
+            ProductionClock clock, long free, int dyeingSpeed) {
+        if (size + sequence.size() > start.length) {
+            throw new IllegalStateException("Timeline holds " + start.length + " slots");
+        }
+        int last = startFamily.ordinal();
+        for (int i = 0; i < sequence.size(); i++) {
+            Order order = sequence.get(i);
+            int family = order.getColorFamily().ordinal();
+            int cleaningMinutes = matrix.cost(last, family);
+            long production = ProductionClock.productionMinutes(order.getQuantityMeters(), dyeingSpeed);
+            long slotStart = clock.start(free, cleaningMinutes, production);
+            free = slotStart + production;
+
+            start[size] = slotStart;
+            end[size] = free;
+            cleaning[size] = cleaningMinutes;
+            machine[size] = machineIndex;
+            size++;
+            last = family;
+        }
+        return free;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long start(int slot) {
+        return start[slot];
+    }
+
+    public long end(int slot) {
+        return end[slot];
+    }
+
+    public int cleaning(int slot) {
+        return cleaning[slot];
+    }
+
+    public int machine(int slot) {
+        return machine[slot];
+    }
+}
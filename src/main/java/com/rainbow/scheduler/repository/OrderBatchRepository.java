@@ -0,0 +1,24 @@
+package com.rainbow.scheduler.repository;
+
+import com.rainbow.scheduler.model.Order;
+
+import java.util.Collection;
+
+/**
+ * Bulk persistence for orders, mixed into {@link OrderRepository}.
+ * Both methods send JDBC batches of hibernate.jdbc.batch_size rows instead of one round trip per order.
+ */
+public interface OrderBatchRepository {
+
+    /**
+     * Inserts new orders in one transaction. Ids come from the pooled order sequence and are set on
+     * the passed orders; the orders are detached afterwards.
+     */
+    void batchInsert(Collection<Order> orders);
+
+    /**
+     * Writes back the planned fields (machine, start/end, production time, urgency, critical flag)
+     * of already persisted orders without loading them first.
+     */
+    void batchUpdateSchedule(Collection<Order> orders);
+}
@@ -0,0 +1,77 @@
+package com.rainbow.scheduler.repository;
+
+import com.rainbow.scheduler.model.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+
+class OrderBatchRepositoryImpl implements OrderBatchRepository {
+
+    private static final String UPDATE_SCHEDULE = "UPDATE orders SET machine_id = ?, scheduled_start_time = ?, "
+            + "scheduled_end_time = ?, production_time_hours = ?, urgency_score = ?, is_critical = ? WHERE id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public void batchInsert(Collection<Order> orders) {
+        int pending = 0;
+        for (Order order : orders) {
+            entityManager.persist(order);
+            if (++pending == batchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    @Transactional
+    public void batchUpdateSchedule(Collection<Order> orders) {
+        jdbcTemplate.batchUpdate(UPDATE_SCHEDULE, orders, batchSize, (ps, order) -> {
+            ps.setString(1, order.getMachineId());
+            ps.setTimestamp(2, order.getScheduledStartTime() == null ? null
+                    : Timestamp.valueOf(order.getScheduledStartTime()));
+            ps.setTimestamp(3, order.getScheduledEndTime() == null ? null
+                    : Timestamp.valueOf(order.getScheduledEndTime()));
+            ps.setDouble(4, order.getProductionTimeHours());
+            ps.setDouble(5, order.getUrgencyScore());
+            ps.setBoolean(6, order.isCritical());
+            ps.setLong(7, order.getId());
+        });
+    }
+
+    /**
+     * MySQL has no sequences, so Hibernate keeps the order sequence in the orders_seq table. On a
+     * database that already holds orders from the old auto-increment ids, move it past them once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void alignIdSequence() {
+        try {
+            jdbcTemplate.update("UPDATE orders_seq SET next_val = GREATEST(next_val, "
+                    + "(SELECT COALESCE(MAX(id), 0) + 1 FROM orders))");
+        } catch (DataAccessException e) {
+            // Native sequence (H2, PostgreSQL...): nothing to align
+        }
+    }
+}
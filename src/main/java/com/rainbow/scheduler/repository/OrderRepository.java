@@ -2,7 +2,9 @@ package com.rainbow.scheduler.repository;
 
 import com.rainbow.scheduler.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>,
+        OrderBatchRepository {
     java.util.List<Order> findBySimulationRunId(Long simulationRunId);
 }
@@ -0,0 +1,225 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.dto.ScheduleOptions;
+import com.rainbow.scheduler.dto.ScheduleResponseDTO;
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.model.Schedule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Schedules every simulation batch (grouped by simulationRunId) independently.
+ * Batches are optimized concurrently on a bounded pool; archiving the metrics of each
+ * batch is DB-bound and runs on its own small pool so it never blocks the CPU workers.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchScheduleService {
+
+    private static final long MANUAL_ORDERS = -1L;
+
+    private final SchedulingService schedulingService;
+    private final IncrementalScheduler incrementalScheduler;
+    private final EcoService ecoService;
+    private final DashboardEventService dashboardEvents;
+
+    @Value("${scheduler.batch.parallelism:4}")
+    private int parallelism;
+
+    @Value("${scheduler.batch.archive-threads:2}")
+    private int archiveThreads;
+
+    private ExecutorService optimizationExecutor;
+    private ExecutorService archiveExecutor;
+
+    @PostConstruct
+    void startExecutors() {
+        optimizationExecutor = Executors.newFixedThreadPool(parallelism, namedThreads("batch-optimizer-"));
+        archiveExecutor = Executors.newFixedThreadPool(archiveThreads, namedThreads("batch-archive-"));
+    }
+
+    @PreDestroy
+    void stopExecutors() {
+        optimizationExecutor.shutdownNow();
+        archiveExecutor.shutdownNow();
+    }
+
+    public ScheduleResponseDTO generate(List<Order> orders, ScheduleOptions options) {
+        Map<Long, List<Order>> groups = group(orders);
+
+        if (groups.size() <= 1) {
+            // Standard single-batch behavior
+            Schedule schedule = plan(groups.keySet().iterator().next(), orders, options);
+            return published(schedulingService.convertToDTO(schedule));
+        }
+
+        // Multi-batch/Simulation behavior (1000 orders case)
+        ScheduleOptions batchOptions = batchOptions(options);
+        List<CompletableFuture<Schedule>> batches = new ArrayList<>(groups.size());
+        List<CompletableFuture<ScheduleResponseDTO>> dtos = new ArrayList<>(groups.size());
+        for (Map.Entry<Long, List<Order>> batch : groups.entrySet()) {
+            CompletableFuture<Schedule> planned = CompletableFuture
+                    .supplyAsync(() -> plan(batch.getKey(), batch.getValue(), batchOptions), optimizationExecutor);
+            batches.add(planned);
+            // Archives this run's metrics and builds the DTO in one pass
+            dtos.add(planned.thenApplyAsync(schedulingService::convertToDTO, archiveExecutor));
+        }
+
+        List<ScheduleResponseDTO.SlotDTO> allSlots = new ArrayList<>();
+        ScheduleTotals totals = new ScheduleTotals();
+        Schedule last = null;
+        for (int i = 0; i < batches.size(); i++) {
+            allSlots.addAll(join(dtos.get(i)).getSchedule());
+            last = join(batches.get(i));
+            totals.add(last);
+        }
+
+        // Create a synthetic response for the frontend dashboard
+        return published(multiBatchSummary(totals, last).toBuilder()
+                .schedule(allSlots)
+                .machines(schedulingService.groupByMachine(allSlots))
+                .build());
+    }
+
+    /**
+     * Same plan as {@link #generate}, handed to {@code sink} one batch at a time (in batch order,
+     * on the calling thread) as soon as it is optimized and archived, so the caller can write it
+     * out and drop it while later batches are still running. {@code multiBatch} tells the sink
+     * whether more than one batch is coming.
+     */
+    public void stream(List<Order> orders, ScheduleOptions options, BatchSink sink) {
+        Map<Long, List<Order>> groups = group(orders);
+        if (groups.size() <= 1) {
+            Schedule schedule = plan(groups.keySet().iterator().next(), orders, options);
+            Map<String, String> metrics = schedulingService.archive(schedule);
+            sink.accept(schedule, metrics, false);
+            dashboardEvents.publish(DashboardEventService.SCHEDULE_SUMMARY, schedulingService.summary(schedule, metrics));
+            return;
+        }
+
+        ScheduleOptions batchOptions = batchOptions(options);
+        List<CompletableFuture<Schedule>> batches = new ArrayList<>(groups.size());
+        List<CompletableFuture<Map<String, String>>> metrics = new ArrayList<>(groups.size());
+        for (Map.Entry<Long, List<Order>> batch : groups.entrySet()) {
+            CompletableFuture<Schedule> planned = CompletableFuture
+                    .supplyAsync(() -> plan(batch.getKey(), batch.getValue(), batchOptions), optimizationExecutor);
+            batches.add(planned);
+            metrics.add(planned.thenApplyAsync(schedulingService::archive, archiveExecutor));
+        }
+        ScheduleTotals totals = new ScheduleTotals();
+        Schedule last = null;
+        for (int i = 0; i < batches.size(); i++) {
+            Map<String, String> batchMetrics = join(metrics.get(i));
+            last = join(batches.get(i));
+            sink.accept(last, batchMetrics, true);
+            totals.add(last);
+            batches.set(i, null); // Written out; let it be collected
+            metrics.set(i, null);
+        }
+        dashboardEvents.publish(DashboardEventService.SCHEDULE_SUMMARY, multiBatchSummary(totals, last));
+    }
+
+    /**
+     * Summary of a multi-batch plan without its slots; {@code last} supplies the strategy and seed,
+     * which every batch shares.
+     */
+    private ScheduleResponseDTO multiBatchSummary(ScheduleTotals totals, Schedule last) {
+        return ScheduleResponseDTO.builder()
+                .optimizedCleaningTimeMinutes(totals.getCleaningMinutes())
+                .fifoCleaningTimeMinutes(totals.getFifoCleaningMinutes())
+                .timeSavedMinutes(totals.timeSavedMinutes())
+                .colorChangeovers(totals.getColorChangeovers())
+                .totalTardinessMinutes(totals.getTardinessMinutes())
+                .idleMinutes(totals.getIdleMinutes())
+                .objectiveScore(totals.getObjectiveScore())
+                .totalWaterLiters(totals.getWaterLiters())
+                .totalChemicalWasteKg(totals.getChemicalWasteKg())
+                .dyedMeters(totals.getDyedMeters())
+                .ecoGrade(ecoService.grade(totals.getWaterLiters(), totals.getDyedMeters()))
+                .deadlineCompliance("N/A (Multi-Batch)") // Complex to aggregate
+                .machineEfficiency("100%") // Placeholder for combined view
+                .strategy(last.getStrategy())
+                .optimizerSeed(last.getOptimizerSeed())
+                .optimizerReplayable(totals.getReplayable())
+                .build();
+    }
+
+    @FunctionalInterface
+    public interface BatchSink {
+        void accept(Schedule batch, Map<String, String> metrics, boolean multiBatch);
+    }
+
+    // Group by Simulation Run ID (-1 for manual orders); sorted keys keep the merge deterministic
+    private static Map<Long, List<Order>> group(List<Order> orders) {
+        return orders.stream()
+                .collect(Collectors.groupingBy(
+                        o -> o.getSimulationRunId() == null ? MANUAL_ORDERS : o.getSimulationRunId(),
+                        TreeMap::new, Collectors.toList()));
+    }
+
+    private ScheduleOptions batchOptions(ScheduleOptions options) {
+        long runSeed = schedulingService.resolveSeed(options.getSeed()); // One seed for every batch so the run can be replayed
+        return ScheduleOptions.builder()
+                .strategy(options.getStrategy())
+                .timeBudgetMs(options.getTimeBudgetMs())
+                .seed(runSeed)
+                .minimize(options.getMinimize())
+                .machines(options.getMachines())
+                .build();
+    }
+
+    /**
+     * Manual orders become the live plan that new orders are folded into incrementally.
+     */
+    private Schedule plan(Long group, List<Order> batch, ScheduleOptions options) {
+        Schedule schedule = schedulingService.generateOptimizedSchedule(batch, options);
+        if (group == MANUAL_ORDERS) {
+            incrementalScheduler.remember(schedule, batch);
+        }
+        if (!schedule.getChangedSlots().isEmpty()) {
+            dashboardEvents.publish(DashboardEventService.SCHEDULE_CHANGED,
+                    schedule.getChangedSlots().stream().map(schedulingService::toSlotDTO).toList());
+        }
+        return schedule;
+    }
+
+    private ScheduleResponseDTO published(ScheduleResponseDTO response) {
+        dashboardEvents.publish(DashboardEventService.SCHEDULE_SUMMARY, response.withoutSlots());
+        return response;
+    }
+
+    private static <T> T join(CompletableFuture<T> batch) {
+        try {
+            return batch.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.model.Order;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dye lots to sequence in place of orders. A lot of one order is the order itself; a larger
+ * lot is a stand-in order carrying the lot's family, total meters and earliest deadline.
+ *
+ * @param lots    what the strategies sequence, in base-schedule order
+ * @param members orders of each merged lot in the order they are dyed, by lot identity
+ */
+public record Campaign(List<Order> lots, Map<Order, List<Order>> members) {
+
+    /**
+     * Every order in its own lot.
+     */
+    public static Campaign none(List<Order> orders) {
+        return new Campaign(orders, new IdentityHashMap<>());
+    }
+
+    public List<Order> members(Order lot) {
+        List<Order> merged = members.get(lot);
+        return merged != null ? merged : List.of(lot);
+    }
+}
@@ -0,0 +1,111 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.model.OrderStatus;
+import com.rainbow.scheduler.optimizer.ProductionClock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Campaign formation between the base schedule and sequencing: orders that can share a dye
+ * bath are merged into lots, so a lot pays one cleaning and one setup and the strategies
+ * sequence far fewer items.
+ *
+ * Orders of one colour family and criticality are taken earliest deadline first; a lot closes
+ * at production.campaign.max-lot-meters, or when the next order is due more than
+ * production.campaign.max-deadline-spread-hours after the lot's first. A lot is due when its
+ * first order is, and its orders are dyed back to back in that order.
+ */
+@Service
+public class CampaignService {
+
+    @Value("${production.campaign.enabled:true}")
+    private boolean enabled;
+
+    @Value("${production.campaign.max-lot-meters:3000}")
+    private int maxLotMeters;
+
+    @Value("${production.campaign.max-deadline-spread-hours:24}")
+    private int maxDeadlineSpreadHours;
+
+    public Campaign form(List<Order> baseSequence) {
+        if (!enabled) {
+            return Campaign.none(baseSequence);
+        }
+        Map<Order, Integer> position = new IdentityHashMap<>();
+        Map<Order, Long> due = new IdentityHashMap<>();
+        Map<List<Object>, List<Order>> groups = new LinkedHashMap<>();
+        for (Order order : baseSequence) {
+            position.put(order, position.size());
+            due.put(order, ProductionClock.toMinute(order.getCreatedAt().plusHours(order.getDeadlineHours())));
+            groups.computeIfAbsent(List.of(order.getColorFamily(), order.isCritical()), k -> new ArrayList<>())
+                    .add(order);
+        }
+
+        Map<Order, List<Order>> members = new IdentityHashMap<>();
+        Map<Order, Integer> lotPosition = new IdentityHashMap<>();
+        for (List<Order> group : groups.values()) {
+            group.sort(Comparator.comparingLong(due::get));
+            List<Order> lot = new ArrayList<>();
+            int meters = 0;
+            for (Order order : group) {
+                if (!lot.isEmpty() && (meters + order.getQuantityMeters() > maxLotMeters
+                        || due.get(order) - due.get(lot.get(0)) > maxDeadlineSpreadHours * 60L)) {
+                    lotPosition.put(close(lot, members), lot.stream().mapToInt(position::get).min().orElseThrow());
+                    lot = new ArrayList<>();
+                    meters = 0;
+                }
+                lot.add(order);
+                meters += order.getQuantityMeters();
+            }
+            lotPosition.put(close(lot, members), lot.stream().mapToInt(position::get).min().orElseThrow());
+        }
+        // A lot takes the base-schedule place of its earliest planned order
+        List<Order> lots = new ArrayList<>(lotPosition.keySet());
+        lots.sort(Comparator.comparingInt(lotPosition::get));
+        return new Campaign(lots, members);
+    }
+
+    /**
+     * Lots formed earlier (as in a live plan), each with its orders in dyeing order, in the
+     * order they run.
+     */
+    public Campaign keep(List<List<Order>> lots) {
+        Map<Order, List<Order>> members = new IdentityHashMap<>();
+        List<Order> sequence = new ArrayList<>(lots.size());
+        for (List<Order> lot : lots) {
+            sequence.add(close(lot, members));
+        }
+        return new Campaign(sequence, members);
+    }
+
+    private static Order close(List<Order> lot, Map<Order, List<Order>> members) {
+        if (lot.size() == 1) {
+            return lot.get(0);
+        }
+        Order first = lot.get(0);
+        ColorFamily family = first.getColorFamily();
+        Order merged = Order.builder()
+                .colorName(first.getColorName())
+                .colorFamily(family)
+                .quantityMeters(lot.stream().mapToInt(Order::getQuantityMeters).sum())
+                .orderType(first.getOrderType())
+                .deadlineHours(first.getDeadlineHours())
+                .createdAt(first.getCreatedAt())
+                .status(OrderStatus.PENDING)
+                .urgencyScore(lot.stream().mapToDouble(Order::getUrgencyScore).sum())
+                .productionTimeHours(lot.stream().mapToDouble(Order::getProductionTimeHours).sum())
+                .isCritical(first.isCritical())
+                .build();
+        members.put(merged, List.copyOf(lot));
+        return merged;
+    }
+}
@@ -0,0 +1,28 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.model.ColorFamily;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cleaning matrix tuning loaded from application properties.
+ * <pre>
+ * # site-wide override (per dye house, via its own properties/profile)
+ * cleaning.matrix.dark-colors.whites-pastels=45
+ * # single machine override, layered on top of the site matrix
+ * cleaning.machines.jet-3.blacks-deep-darks.whites-pastels=55
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cleaning")
+public class CleaningMatrixProperties {
+
+    private Map<ColorFamily, Map<ColorFamily, Integer>> matrix = new HashMap<>();
+
+    private Map<String, Map<ColorFamily, Map<ColorFamily, Integer>>> machines = new HashMap<>();
+}
@@ -1,91 +1,53 @@
 package com.rainbow.scheduler.service;
 
 import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.optimizer.CleaningCostMatrix;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 @Service
+@RequiredArgsConstructor
 public class CleaningService {
 
-    /**
-     * Follows the Industrial Cleaning Matrix:
-     * - Same Family: 2 mins (Simple reset)
-     * - Moving Darker (Light -> Dark): 10-15 mins
-     * - Moving Lighter (Dark -> Light): 30-45 mins (Deep purge)
-     * - White <-> Black: 60 mins (Extreme penalty)
-     */
-    public int calculateCleaningTime(ColorFamily from, ColorFamily to) {
-        if (from == to) {
-            return 2; // Industrial batching (very efficient)
-        }
-
-        // Specific Industrial Matrix
-        if (from == ColorFamily.WHITES_PASTELS) {
-            if (to == ColorFamily.LIGHT_COLORS)
-                return 10;
-            if (to == ColorFamily.MEDIUM_COLORS)
-                return 15;
-            if (to == ColorFamily.DARK_COLORS)
-                return 25;
-            if (to == ColorFamily.BLACKS_DEEP_DARKS)
-                return 60;
-        }
+    private final CleaningMatrixProperties properties;
 
-        if (from == ColorFamily.LIGHT_COLORS) {
-            if (to == ColorFamily.WHITES_PASTELS)
-                return 30;
-            if (to == ColorFamily.MEDIUM_COLORS)
-                return 10;
-            if (to == ColorFamily.DARK_COLORS)
-                return 15;
-            if (to == ColorFamily.BLACKS_DEEP_DARKS)
-                return 45;
-        }
+    private CleaningCostMatrix matrix;
+    private Map<String, CleaningCostMatrix> machineMatrices;
 
-        if (from == ColorFamily.MEDIUM_COLORS) {
-            if (to == ColorFamily.WHITES_PASTELS)
-                return 40;
-            if (to == ColorFamily.LIGHT_COLORS)
-                return 20;
-            if (to == ColorFamily.DARK_COLORS)
-                return 10;
-            if (to == ColorFamily.BLACKS_DEEP_DARKS)
-                return 15;
-        }
+    /**
+     * Builds the site matrix (industrial defaults + cleaning.matrix.*) and the
+     * per-machine matrices once at startup; lookups afterwards are plain array reads.
+     */
+    @PostConstruct
+    void buildMatrices() {
+        matrix = CleaningCostMatrix.industrialDefault().withOverrides(properties.getMatrix());
+
+        Map<String, CleaningCostMatrix> perMachine = new HashMap<>();
+        properties.getMachines().forEach((machineId, overrides) -> perMachine
+                .put(machineId.toLowerCase(Locale.ROOT), matrix.withOverrides(overrides)));
+        machineMatrices = Map.copyOf(perMachine);
+    }
 
-        if (from == ColorFamily.DARK_COLORS) {
-            if (to == ColorFamily.WHITES_PASTELS)
-                return 50;
-            if (to == ColorFamily.LIGHT_COLORS)
-                return 35;
-            if (to == ColorFamily.MEDIUM_COLORS)
-                return 25;
-            if (to == ColorFamily.BLACKS_DEEP_DARKS)
-                return 10;
-        }
+    public CleaningCostMatrix getMatrix() {
+        return matrix;
+    }
 
-        if (from == ColorFamily.BLACKS_DEEP_DARKS) {
-            if (to == ColorFamily.WHITES_PASTELS)
-                return 60;
-            if (to == ColorFamily.LIGHT_COLORS)
-                return 50;
-            if (to == ColorFamily.MEDIUM_COLORS)
-                return 40;
-            if (to == ColorFamily.DARK_COLORS)
-                return 30;
+    /**
+     * Matrix for a specific machine, falling back to the site matrix when it has no overrides.
+     */
+    public CleaningCostMatrix getMatrix(String machineId) {
+        if (machineId == null) {
+            return matrix;
         }
-
-        // Default heuristic
-        return calculateJumpHeuristic(from, to);
+        return machineMatrices.getOrDefault(machineId.toLowerCase(Locale.ROOT), matrix);
     }
 
-    private int calculateJumpHeuristic(ColorFamily from, ColorFamily to) {
-        int fromIdx = from.ordinal();
-        int toIdx = to.ordinal();
-
-        if (toIdx > fromIdx) { // Moving darker
-            return (toIdx - fromIdx) * 12;
-        } else { // Moving lighter
-            return (fromIdx - toIdx) * 20;
-        }
+    public int calculateCleaningTime(ColorFamily from, ColorFamily to) {
+        return matrix.cost(from, to);
     }
 }
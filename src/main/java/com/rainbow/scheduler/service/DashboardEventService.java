@@ -0,0 +1,99 @@
+package com.rainbow.scheduler.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes order, schedule and simulation changes to every open dashboard over Server-Sent Events,
+ * so screens apply deltas instead of re-reading whole tables after each action.
+ *
+ * All sends go through one thread: emitters are not safe for concurrent sends, and a slow
+ * client must not hold up the request or job that published the event.
+ */
+@Service
+public class DashboardEventService {
+
+    public static final String ORDER_CREATED = "order-created";
+    public static final String ORDER_UPDATED = "order-updated";
+    public static final String ORDERS_IMPORTED = "orders-imported";
+    public static final String ORDERS_CLEARED = "orders-cleared";
+    public static final String SCHEDULE_CHANGED = "schedule-changed"; // Slots whose time or machine moved
+    public static final String SCHEDULE_SUMMARY = "schedule-summary"; // Totals and metrics, no slots
+    public static final String SIMULATION_COMPLETED = "simulation-completed";
+
+    @Value("${scheduler.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${scheduler.events.heartbeat-seconds:20}")
+    private long heartbeatSeconds;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService sender;
+
+    @PostConstruct
+    void startSender() {
+        sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Keeps idle connections open through proxies
+        sender.scheduleAtFixedRate(() -> sendToAll(SseEmitter.event().comment("keepalive")),
+                heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stopSender() {
+        sender.shutdownNow();
+        emitters.forEach(SseEmitter::complete);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+        sender.execute(() -> send(emitter, SseEmitter.event().comment("connected")));
+        return emitter;
+    }
+
+    public void publish(String event, Object payload) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        sendToAll(SseEmitter.event().name(event).data(payload, MediaType.APPLICATION_JSON));
+    }
+
+    private void sendToAll(SseEmitter.SseEventBuilder event) {
+        sender.execute(() -> {
+            Set<ResponseBodyEmitter.DataWithMediaType> frame = event.build(); // A builder may only be built once
+            emitters.forEach(emitter -> send(emitter, frame));
+        });
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        send(emitter, event.build());
+    }
+
+    private void send(SseEmitter emitter, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        try {
+            emitter.send(frame);
+        } catch (IOException | IllegalStateException e) {
+            emitters.remove(emitter); // Client went away
+        }
+    }
+}
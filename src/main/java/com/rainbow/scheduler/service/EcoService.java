@@ -0,0 +1,115 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.model.Schedule;
+import com.rainbow.scheduler.model.ScheduleSlot;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+
+/**
+ * Eco accounting: every cleaning minute uses eco.water-per-cleaning-minute litres of water and
+ * leaves eco.chemical-waste-per-cleaning-minute kg of chemical waste. A plan is graded A to E
+ * by its water intensity, litres per 1,000 m dyed, against eco.grade-thresholds.
+ */
+@Service
+public class EcoService {
+
+    private static final String[] GRADES = { "A", "B", "C", "D", "E" };
+
+    @Value("${eco.water-per-cleaning-minute:15}")
+    private double waterPerCleaningMinute;
+
+    @Value("${eco.chemical-waste-per-cleaning-minute:0.2}")
+    private double chemicalWastePerCleaningMinute;
+
+    @Value("${eco.grade-thresholds:150,300,500,800}")
+    private String gradeThresholdList;
+
+    private double[] gradeThresholds;
+
+    @PostConstruct
+    void checkSettings() {
+        if (waterPerCleaningMinute < 0 || chemicalWastePerCleaningMinute < 0) {
+            throw new IllegalStateException("eco factors must not be negative");
+        }
+        try {
+            gradeThresholds = Arrays.stream(gradeThresholdList.split(","))
+                    .map(String::trim)
+                    .filter(value -> !value.isEmpty())
+                    .mapToDouble(Double::parseDouble)
+                    .toArray();
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("eco.grade-thresholds must be numbers: " + gradeThresholdList, e);
+        }
+        if (gradeThresholds.length > GRADES.length - 1) {
+            throw new IllegalStateException("eco.grade-thresholds takes at most " + (GRADES.length - 1) + " values");
+        }
+        for (int i = 1; i < gradeThresholds.length; i++) {
+            if (gradeThresholds[i] <= gradeThresholds[i - 1]) {
+                throw new IllegalStateException("eco.grade-thresholds must be ascending");
+            }
+        }
+    }
+
+    public double water(int cleaningMinutes) {
+        return cleaningMinutes * waterPerCleaningMinute;
+    }
+
+    public double chemicalWaste(int cleaningMinutes) {
+        return cleaningMinutes * chemicalWastePerCleaningMinute;
+    }
+
+    /**
+     * A for at most the first threshold of litres per 1,000 m, the next grade per threshold
+     * passed; nothing dyed grades A.
+     */
+    public String grade(double waterLiters, long meters) {
+        if (meters <= 0) {
+            return GRADES[0];
+        }
+        double intensity = waterLiters * 1000 / meters;
+        int grade = 0;
+        while (grade < gradeThresholds.length && intensity > gradeThresholds[grade]) {
+            grade++;
+        }
+        return GRADES[grade];
+    }
+
+    public Tally tally() {
+        return new Tally();
+    }
+
+    /**
+     * Running totals of one plan, fed slot by slot while the slots are built.
+     */
+    public final class Tally {
+
+        private double waterLiters;
+        private double chemicalWasteKg;
+        private long meters;
+
+        private Tally() {
+        }
+
+        /**
+         * Sets the slot's water and chemical waste and adds them, and its meters, to the totals.
+         */
+        public ScheduleSlot add(ScheduleSlot slot) {
+            slot.setWaterLiters(water(slot.getCleaningBeforeMinutes()));
+            slot.setChemicalWasteKg(chemicalWaste(slot.getCleaningBeforeMinutes()));
+            waterLiters += slot.getWaterLiters();
+            chemicalWasteKg += slot.getChemicalWasteKg();
+            meters += slot.getOrder().getQuantityMeters();
+            return slot;
+        }
+
+        public void applyTo(Schedule schedule) {
+            schedule.setTotalWaterLiters(waterLiters);
+            schedule.setTotalChemicalWasteKg(chemicalWasteKg);
+            schedule.setDyedMeters(meters);
+            schedule.setEcoGrade(grade(waterLiters, meters));
+        }
+    }
+}
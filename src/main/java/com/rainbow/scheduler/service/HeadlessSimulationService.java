@@ -0,0 +1,285 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.dto.ScheduleOptions;
+import com.rainbow.scheduler.dto.SimulationProfile;
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.model.OrderStatus;
+import com.rainbow.scheduler.model.OrderType;
+import com.rainbow.scheduler.model.Schedule;
+import com.rainbow.scheduler.model.SimulationRun;
+import com.rainbow.scheduler.repository.SimulationRunRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+
+/**
+ * Capacity-planning simulation that never touches the orders table: every case generates its
+ * orders in memory, plans them with {@link SchedulingService#simulate} and keeps its totals.
+ * Cases run in parallel on a dedicated pool; only the aggregated {@link SimulationRun} is stored.
+ *
+ * Each case gets its own SplittableRandom split from the run seed, and every case is planned as
+ * of the profile's startAt rather than the wall clock, so a run can be replayed. A case whose
+ * search the profile's timeBudgetMs cuts short may still plan differently on a replay.
+ */
+@Service
+@RequiredArgsConstructor
+public class HeadlessSimulationService {
+
+    private static final ColorFamily[] FAMILIES = ColorFamily.values();
+    private static final OrderType[] TYPES = OrderType.values();
+    private static final LocalDate REFERENCE_DAY = LocalDate.of(2024, 1, 1); // A Monday
+
+    private final SchedulingService schedulingService;
+    private final SimulationRunRepository simulationRunRepository;
+    private final DashboardEventService dashboardEvents;
+    private final EcoService ecoService;
+
+    @Value("${production.start-hour:8}")
+    private int startHour;
+
+    @Value("${scheduler.simulation.parallelism:0}")
+    private int parallelism;
+
+    @Value("${scheduler.simulation.max-total-orders:50000000}")
+    private long maxTotalOrders;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void startPool() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("simulator-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    void stopPool() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * @throws IllegalArgumentException when the profile is out of range or names an unknown strategy
+     */
+    public void validate(SimulationProfile profile) {
+        if (profile.getCases() < 1 || profile.getOrdersPerCase() < 1) {
+            throw new IllegalArgumentException("cases and ordersPerCase must be at least 1");
+        }
+        if ((long) profile.getCases() * profile.getOrdersPerCase() > maxTotalOrders) {
+            throw new IllegalArgumentException("A simulation may generate at most " + maxTotalOrders + " orders");
+        }
+        if (profile.getMinDeadlineHours() < 1 || profile.getMaxDeadlineHours() < profile.getMinDeadlineHours()) {
+            throw new IllegalArgumentException("Deadlines must satisfy 1 <= minDeadlineHours <= maxDeadlineHours");
+        }
+        if (profile.getMinQuantityMeters() < OrderImportService.MIN_QUANTITY_METERS
+                || profile.getMaxQuantityMeters() < profile.getMinQuantityMeters()) {
+            throw new IllegalArgumentException("Quantities must satisfy " + OrderImportService.MIN_QUANTITY_METERS
+                    + " <= minQuantityMeters <= maxQuantityMeters");
+        }
+        if (profile.getRushShare() != null && (profile.getRushShare() < 0 || profile.getRushShare() > 1)) {
+            throw new IllegalArgumentException("rushShare must be between 0 and 1");
+        }
+        if (profile.getFamilyMix() != null && !profile.getFamilyMix().isEmpty()) {
+            double total = 0;
+            for (Double weight : profile.getFamilyMix().values()) {
+                if (weight == null || weight < 0) {
+                    throw new IllegalArgumentException("familyMix weights must be non-negative");
+                }
+                total += weight;
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("familyMix needs at least one positive weight");
+            }
+        }
+        schedulingService.validate(options(profile, null));
+    }
+
+    /**
+     * Runs every case and stores the aggregated run; {@code progress} is told about each finished case.
+     */
+    public SimulationRun run(SimulationProfile profile, JobService.Progress progress) {
+        validate(profile);
+        long started = System.currentTimeMillis();
+        long seed = profile.getSeed() != null ? profile.getSeed() : new SplittableRandom().nextLong();
+        double[] familyWeights = cumulativeFamilyWeights(profile.getFamilyMix());
+        LocalDateTime startAt = profile.getStartAt() != null ? profile.getStartAt()
+                : REFERENCE_DAY.atTime(startHour, 0);
+
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Callable<CaseResult>> cases = new ArrayList<>(profile.getCases());
+        for (int i = 1; i <= profile.getCases(); i++) {
+            SplittableRandom caseRandom = root.split();
+            int number = i;
+            cases.add(() -> {
+                CaseResult result = runCase(profile, familyWeights, startAt, caseRandom);
+                progress.step("Case " + number + " done");
+                return result;
+            });
+        }
+
+        double[] cleaning = new double[cases.size()];
+        double[] compliance = new double[cases.size()];
+        double[] efficiency = new double[cases.size()];
+        long totalCleaning = 0;
+        long totalSaved = 0;
+        double totalWater = 0;
+        double totalChemicalWaste = 0;
+        long dyedMeters = 0;
+        try {
+            List<Future<CaseResult>> results = pool.invokeAll(cases);
+            for (int i = 0; i < results.size(); i++) {
+                CaseResult result = results.get(i).get();
+                cleaning[i] = result.cleaningMinutes();
+                compliance[i] = result.compliance();
+                efficiency[i] = result.efficiency();
+                totalCleaning += result.cleaningMinutes();
+                totalSaved += result.savedMinutes();
+                totalWater += result.waterLiters();
+                totalChemicalWaste += result.chemicalWasteKg();
+                dyedMeters += result.dyedMeters();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation case failed", e.getCause());
+        }
+
+        Arrays.sort(cleaning);
+        Arrays.sort(compliance);
+        Arrays.sort(efficiency);
+        SimulationRun run = simulationRunRepository.save(SimulationRun.builder()
+                .name(profile.getName() != null ? profile.getName()
+                        : "Headless " + profile.getCases() + " x " + profile.getOrdersPerCase())
+                .timestamp(LocalDateTime.now())
+                .orderCount((int) Math.min(Integer.MAX_VALUE, (long) profile.getCases() * profile.getOrdersPerCase()))
+                .deadlineCompliance(String.format("%.1f%%", mean(compliance)))
+                .machineEfficiency(String.format("%.1f%%", mean(efficiency)))
+                .totalCleaningTimeMinutes((int) Math.min(Integer.MAX_VALUE, totalCleaning))
+                .timeSavedMinutes((int) Math.min(Integer.MAX_VALUE, totalSaved))
+                .ecoGrade(ecoService.grade(totalWater, dyedMeters))
+                .totalWaterLiters(totalWater)
+                .totalChemicalWasteKg(totalChemicalWaste)
+                .caseCount(profile.getCases())
+                .seed(seed)
+                .elapsedMs(System.currentTimeMillis() - started)
+                .cleaningP50(percentile(cleaning, 50))
+                .cleaningP90(percentile(cleaning, 90))
+                .cleaningP99(percentile(cleaning, 99))
+                .complianceP10(percentile(compliance, 10))
+                .complianceP50(percentile(compliance, 50))
+                .complianceP90(percentile(compliance, 90))
+                .efficiencyP10(percentile(efficiency, 10))
+                .efficiencyP50(percentile(efficiency, 50))
+                .efficiencyP90(percentile(efficiency, 90))
+                .build());
+        dashboardEvents.publish(DashboardEventService.SIMULATION_COMPLETED, run);
+        return run;
+    }
+
+    private CaseResult runCase(SimulationProfile profile, double[] familyWeights, LocalDateTime startAt,
+            SplittableRandom random) {
+        List<Order> orders = generateOrders(profile, familyWeights, startAt, random);
+        Schedule schedule = schedulingService.simulate(orders, options(profile, random.nextLong()), startAt);
+        return new CaseResult(schedule.getTotalCleaningTimeMinutes(),
+                schedule.getFifoCleaningTimeMinutes() - schedule.getTotalCleaningTimeMinutes(),
+                schedulingService.complianceRate(schedule), schedulingService.efficiency(schedule),
+                schedule.getTotalWaterLiters(), schedule.getTotalChemicalWasteKg(), schedule.getDyedMeters());
+    }
+
+    private static List<Order> generateOrders(SimulationProfile profile, double[] familyWeights,
+            LocalDateTime createdAt, SplittableRandom random) {
+        List<Order> orders = new ArrayList<>(profile.getOrdersPerCase());
+        for (int i = 0; i < profile.getOrdersPerCase(); i++) {
+            orders.add(Order.builder()
+                    .colorFamily(family(familyWeights, random))
+                    .quantityMeters(random.nextInt(profile.getMinQuantityMeters(), profile.getMaxQuantityMeters() + 1))
+                    .orderType(type(profile.getRushShare(), random))
+                    .deadlineHours(random.nextInt(profile.getMinDeadlineHours(), profile.getMaxDeadlineHours() + 1))
+                    .status(OrderStatus.PENDING)
+                    .createdAt(createdAt)
+                    .build());
+        }
+        return orders;
+    }
+
+    private static ColorFamily family(double[] cumulativeWeights, SplittableRandom random) {
+        if (cumulativeWeights == null) {
+            return FAMILIES[random.nextInt(FAMILIES.length)];
+        }
+        double pick = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return FAMILIES[i];
+            }
+        }
+        return FAMILIES[FAMILIES.length - 1];
+    }
+
+    private static OrderType type(Double rushShare, SplittableRandom random) {
+        if (rushShare == null) {
+            return TYPES[random.nextInt(TYPES.length)];
+        }
+        if (random.nextDouble() < rushShare) {
+            return OrderType.RUSH;
+        }
+        return random.nextBoolean() ? OrderType.STANDARD : OrderType.BULK;
+    }
+
+    /**
+     * Running totals of the family weights in ColorFamily order; null for a uniform mix.
+     */
+    private static double[] cumulativeFamilyWeights(Map<ColorFamily, Double> mix) {
+        if (mix == null || mix.isEmpty()) {
+            return null;
+        }
+        double[] cumulative = new double[FAMILIES.length];
+        double total = 0;
+        for (int i = 0; i < FAMILIES.length; i++) {
+            total += mix.getOrDefault(FAMILIES[i], 0.0);
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    private static ScheduleOptions options(SimulationProfile profile, Long seed) {
+        return ScheduleOptions.builder()
+                .strategy(profile.getStrategy())
+                .timeBudgetMs(profile.getTimeBudgetMs())
+                .seed(seed)
+                .minimize(profile.getMinimize())
+                .build();
+    }
+
+    // Nearest-rank percentile of sorted values
+    private static double percentile(double[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double mean(double[] values) {
+        return Arrays.stream(values).average().orElse(0);
+    }
+
+    private record CaseResult(int cleaningMinutes, int savedMinutes, double compliance, double efficiency,
+            double waterLiters, double chemicalWasteKg, long dyedMeters) {
+    }
+}
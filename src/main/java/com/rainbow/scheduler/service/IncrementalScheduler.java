@@ -0,0 +1,304 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.dto.ScheduleResponseDTO;
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Machine;
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.model.Schedule;
+import com.rainbow.scheduler.model.ScheduleSlot;
+import com.rainbow.scheduler.optimizer.AnnealingEngine;
+import com.rainbow.scheduler.optimizer.AnnealingSettings;
+import com.rainbow.scheduler.optimizer.CleaningCostMatrix;
+import com.rainbow.scheduler.repository.OrderRepository;
+import com.rainbow.scheduler.service.strategy.SchedulingStrategy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Keeps the live plan of manual (non-simulation) orders in memory and folds new orders
+ * into it instead of re-optimizing everything.
+ *
+ * The plan is handled in dye lots, as it was sequenced: a new order becomes a lot of its own
+ * at the cheapest feasible lot boundary over all machines (critical orders stay inside the
+ * critical window), then only a window of lots around it is re-annealed and re-timed, each lot
+ * still dyed as a whole. Orders whose planned start or end did not move are not written back.
+ *
+ * Lots whose planned start has passed are running or done and stay where they are: the new
+ * order only goes after them, and nothing is re-timed earlier than
+ * {@link SchedulingService#planStart}, so the next generate does not see moved orders as started.
+ */
+@Service
+@RequiredArgsConstructor
+public class IncrementalScheduler {
+
+    private final SchedulingService schedulingService;
+    private final CleaningService cleaningService;
+    private final OrderRepository orderRepository;
+    private final DashboardEventService dashboardEvents;
+    private final SchedulerMetrics schedulerMetrics;
+    private final EcoService ecoService;
+    private final CampaignService campaignService;
+    private final Clock wallClock;
+
+    @Value("${scheduler.incremental.enabled:true}")
+    private boolean enabled;
+
+    @Value("${scheduler.incremental.window:20}")
+    private int window;
+
+    @Value("${scheduler.incremental.window-iterations:20000}")
+    private long windowIterations;
+
+    @Value("${scheduler.incremental.window-time-budget-ms:20}")
+    private long windowTimeBudgetMs;
+
+    @Value("${optimizer.annealing.initial-temperature:25}")
+    private double initialTemperature;
+
+    @Value("${optimizer.annealing.final-temperature:0.05}")
+    private double finalTemperature;
+
+    private final SplittableRandom random = new SplittableRandom();
+
+    private Schedule schedule;
+    private Map<String, Lane> lanes;
+    private List<ScheduleSlot> frozenSlots;
+    private ColorFamily lastFifoFamily;
+
+    /**
+     * Takes over a freshly generated plan of manual orders as the live plan. Frozen slots are
+     * kept as they are; new orders only go into the pending tail of each machine.
+     */
+    public synchronized void remember(Schedule generated, List<Order> arrivalOrder) {
+        Map<String, Lane> byMachine = new LinkedHashMap<>();
+        List<ScheduleSlot> frozen = new ArrayList<>();
+        for (Machine machine : generated.getMachines()) {
+            LocalDateTime start = machine.getAvailableFrom() != null
+                    && machine.getAvailableFrom().isAfter(generated.getPlanStart()) ? machine.getAvailableFrom()
+                            : generated.getPlanStart();
+            byMachine.put(machine.getId(), new Lane(machine, start, new ArrayList<>()));
+        }
+        for (ScheduleSlot slot : generated.getSlots()) {
+            (slot.isFrozen() ? frozen : byMachine.get(slot.getMachineId()).slots()).add(slot);
+        }
+        schedule = generated;
+        lanes = byMachine;
+        frozenSlots = frozen;
+        lastFifoFamily = arrivalOrder.isEmpty() ? ColorFamily.WHITES_PASTELS
+                : arrivalOrder.get(arrivalOrder.size() - 1).getColorFamily();
+    }
+
+    public synchronized void reset() {
+        schedule = null;
+        lanes = null;
+        frozenSlots = null;
+    }
+
+    public synchronized Optional<ScheduleResponseDTO> current() {
+        return schedule == null ? Optional.empty() : Optional.of(schedulingService.convertToDTO(schedule));
+    }
+
+    /**
+     * Inserts a newly created manual order into the live plan and persists the orders it moved.
+     *
+     * @return false when there is no live plan to extend (or the mode is disabled)
+     */
+    public synchronized boolean onOrderCreated(Order order) {
+        if (!enabled || schedule == null || order.getSimulationRunId() != null) {
+            return false;
+        }
+        schedulingService.analyzeOrders(List.of(order));
+        LocalDateTime now = LocalDateTime.now(wallClock);
+
+        Lane lane = null;
+        List<List<Order>> sequence = null;
+        int position = -1;
+        int pending = 0;
+        int bestExtra = Integer.MAX_VALUE;
+        for (Lane candidate : lanes.values()) {
+            CleaningCostMatrix matrix = cleaningService.getMatrix(candidate.machine().getId());
+            int family = order.getColorFamily().ordinal();
+            List<List<Order>> lots = lots(candidate);
+            int first = firstPendingLot(candidate, now);
+            int limit = order.isCritical()
+                    ? Math.min(lots.size(), first + SchedulingStrategy.CRITICAL_WINDOW - 1)
+                    : lots.size();
+            for (int p = first; p <= limit; p++) {
+                int prev = (p == 0 ? candidate.machine().getCurrentColorFamily() : family(lots.get(p - 1))).ordinal();
+                int extra = matrix.cost(prev, family);
+                if (p < lots.size()) {
+                    int next = family(lots.get(p)).ordinal();
+                    extra += matrix.cost(family, next) - matrix.cost(prev, next);
+                }
+                if (extra < bestExtra) {
+                    bestExtra = extra;
+                    lane = candidate;
+                    sequence = lots;
+                    position = p;
+                    pending = first;
+                }
+            }
+        }
+
+        sequence.add(position, List.of(order));
+        int from = Math.max(pending, position - window);
+        int to = Math.min(sequence.size(), position + window + 1);
+        reanneal(lane, sequence, from, to);
+
+        List<Order> changed = retime(lane, sequence, from, schedulingService.planStart(now));
+        orderRepository.batchUpdateSchedule(changed);
+
+        List<ScheduleSlot> slots = new ArrayList<>();
+        for (Lane l : lanes.values()) {
+            frozenSlots.stream().filter(f -> f.getMachineId().equals(l.machine().getId())).forEach(slots::add);
+            slots.addAll(l.slots());
+        }
+        schedule.setSlots(slots);
+        schedule.setTotalCleaningTimeMinutes(schedule.getSlots().stream()
+                .mapToInt(ScheduleSlot::getCleaningBeforeMinutes).sum());
+        schedule.setFifoCleaningTimeMinutes(schedule.getFifoCleaningTimeMinutes()
+                + cleaningService.getMatrix().cost(lastFifoFamily, order.getColorFamily()));
+        lastFifoFamily = order.getColorFamily();
+        schedule.setDyedMeters(schedule.getDyedMeters() + order.getQuantityMeters());
+        schedule.setEcoGrade(ecoService.grade(schedule.getTotalWaterLiters(), schedule.getDyedMeters()));
+
+        Set<Order> moved = Collections.newSetFromMap(new IdentityHashMap<>());
+        moved.addAll(changed);
+        dashboardEvents.publish(DashboardEventService.SCHEDULE_CHANGED, lane.slots().stream()
+                .filter(slot -> moved.contains(slot.getOrder()))
+                .map(schedulingService::toSlotDTO)
+                .toList());
+        dashboardEvents.publish(DashboardEventService.SCHEDULE_SUMMARY,
+                schedulingService.convertToDTO(schedule).withoutSlots());
+        return true;
+    }
+
+    /**
+     * Re-anneals lots {@code from} to {@code to}; each lot is annealed as its first order, which
+     * carries the lot's family and criticality.
+     */
+    private void reanneal(Lane lane, List<List<Order>> sequence, int from, int to) {
+        ColorFamily before = from == 0 ? lane.machine().getCurrentColorFamily() : family(sequence.get(from - 1));
+        ColorFamily after = to < sequence.size() ? family(sequence.get(to)) : null;
+        Map<Order, List<Order>> byHead = new IdentityHashMap<>();
+        List<Order> heads = new ArrayList<>(to - from);
+        for (List<Order> lot : sequence.subList(from, to)) {
+            byHead.put(lot.get(0), lot);
+            heads.add(lot.get(0));
+        }
+        AnnealingSettings settings = new AnnealingSettings(windowIterations, windowTimeBudgetMs,
+                initialTemperature, finalTemperature);
+        AnnealingEngine.Result result = schedulerMetrics.time(SchedulerMetrics.ANNEALING, "incremental",
+                () -> new AnnealingEngine(cleaningService.getMatrix(lane.machine().getId()), before, after,
+                        settings).anneal(heads, random.split()));
+        schedulerMetrics.annealingMoves(result.movesTried(), result.movesAccepted());
+        List<Order> improved = result.sequence();
+        for (int i = from; i < to; i++) {
+            sequence.set(i, byHead.get(improved.get(i - from)));
+        }
+    }
+
+    /**
+     * Re-times the lane from lot {@code fromLot} on, starting no earlier than {@code earliest};
+     * everything before it keeps its slots. The plan's water and chemical waste move by the
+     * difference between the old and new tail.
+     *
+     * @return orders whose planned start or end changed (including the new order)
+     */
+    private List<Order> retime(Lane lane, List<List<Order>> sequence, int fromLot, LocalDateTime earliest) {
+        List<List<Order>> tailLots = sequence.subList(fromLot, sequence.size());
+        int from = sequence.subList(0, fromLot).stream().mapToInt(List::size).sum();
+        List<Order> moved = tailLots.stream().flatMap(List::stream).toList();
+        LocalDateTime[] previousStart = new LocalDateTime[moved.size()];
+        LocalDateTime[] previousEnd = new LocalDateTime[moved.size()];
+        for (int i = 0; i < moved.size(); i++) {
+            previousStart[i] = moved.get(i).getScheduledStartTime();
+            previousEnd[i] = moved.get(i).getScheduledEndTime();
+        }
+
+        List<ScheduleSlot> slots = lane.slots();
+        LocalDateTime free = from == 0 ? lane.start() : slots.get(from - 1).getEndTime();
+        LocalDateTime clock = earliest.isAfter(free) ? earliest : free;
+        Machine resumed = Machine.builder()
+                .id(lane.machine().getId())
+                .dyeingSpeed(lane.machine().getDyeingSpeed())
+                .currentColorFamily(familyBefore(lane, from))
+                .build();
+        List<ScheduleSlot> tail = schedulingService.mapToSlots(campaignService.keep(tailLots), clock, resumed);
+        List<ScheduleSlot> replaced = slots.subList(from, slots.size());
+        schedule.setTotalWaterLiters(schedule.getTotalWaterLiters()
+                + tail.stream().mapToDouble(ScheduleSlot::getWaterLiters).sum()
+                - replaced.stream().mapToDouble(ScheduleSlot::getWaterLiters).sum());
+        schedule.setTotalChemicalWasteKg(schedule.getTotalChemicalWasteKg()
+                + tail.stream().mapToDouble(ScheduleSlot::getChemicalWasteKg).sum()
+                - replaced.stream().mapToDouble(ScheduleSlot::getChemicalWasteKg).sum());
+        replaced.clear();
+        slots.addAll(tail);
+
+        List<Order> changed = new ArrayList<>();
+        for (int i = 0; i < moved.size(); i++) {
+            Order order = moved.get(i);
+            if (!Objects.equals(previousStart[i], order.getScheduledStartTime())
+                    || !Objects.equals(previousEnd[i], order.getScheduledEndTime())) {
+                changed.add(order);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * The lane's pending orders by dye lot; a lot starts at every slot that does not continue one.
+     */
+    private static List<List<Order>> lots(Lane lane) {
+        List<List<Order>> lots = new ArrayList<>();
+        for (ScheduleSlot slot : lane.slots()) {
+            if (lots.isEmpty() || !slot.isContinuesLot()) {
+                lots.add(new ArrayList<>());
+            }
+            lots.get(lots.size() - 1).add(slot.getOrder());
+        }
+        return lots;
+    }
+
+    /**
+     * Index of the first lot that has not started by {@code now}; lots before it keep their slots.
+     */
+    private static int firstPendingLot(Lane lane, LocalDateTime now) {
+        int lot = -1;
+        for (ScheduleSlot slot : lane.slots()) {
+            if (lot < 0 || !slot.isContinuesLot()) {
+                lot++;
+                if (slot.getStartTime().isAfter(now)) {
+                    return lot;
+                }
+            }
+        }
+        return lot + 1;
+    }
+
+    private static ColorFamily family(List<Order> lot) {
+        return lot.get(0).getColorFamily();
+    }
+
+    private static ColorFamily familyBefore(Lane lane, int position) {
+        return position == 0 ? lane.machine().getCurrentColorFamily()
+                : lane.slots().get(position - 1).getColorFamily();
+    }
+
+    private record Lane(Machine machine, LocalDateTime start, List<ScheduleSlot> slots) {
+    }
+}
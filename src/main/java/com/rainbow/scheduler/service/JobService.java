@@ -0,0 +1,187 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.dto.JobDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs long operations (schedule generation, simulations) off the request thread.
+ *
+ * Work goes to a fixed pool of scheduler.jobs.workers threads behind a queue of
+ * scheduler.jobs.queue-capacity; when both are full, submit fails at once instead of piling up
+ * work, and the API answers 429. Jobs live in memory only; the oldest finished ones are
+ * dropped beyond scheduler.jobs.retained.
+ */
+@Service
+public class JobService {
+
+    /**
+     * Lets running work report how far it got.
+     */
+    public interface Progress {
+        void step(String message);
+    }
+
+    @Value("${scheduler.jobs.workers:2}")
+    private int workers;
+
+    @Value("${scheduler.jobs.queue-capacity:8}")
+    private int queueCapacity;
+
+    @Value("${scheduler.jobs.retained:100}")
+    private int retained;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void startExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "job-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues {@code work}; its return value becomes the job result.
+     *
+     * @throws RejectedExecutionException when every worker is busy and the queue is full
+     */
+    public JobDTO submit(String type, int totalSteps, Function<Progress, Object> work) {
+        Job job = new Job(UUID.randomUUID().toString(), type, totalSteps);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        evictFinished();
+        return job.snapshot(false);
+    }
+
+    public Optional<JobDTO> get(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(job -> job.snapshot(true));
+    }
+
+    /**
+     * All retained jobs, newest first, without results.
+     */
+    public List<JobDTO> list() {
+        return jobs.values().stream()
+                .map(job -> job.snapshot(false))
+                .sorted(Comparator.comparing(JobDTO::getSubmittedAt).reversed())
+                .toList();
+    }
+
+    private void run(Job job, Function<Progress, Object> work) {
+        job.start();
+        try {
+            job.succeed(work.apply(job::step));
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        }
+    }
+
+    private void evictFinished() {
+        int excess = jobs.size() - retained;
+        if (excess <= 0) {
+            return;
+        }
+        List<Job> finished = new ArrayList<>();
+        for (Job job : jobs.values()) {
+            if (job.isFinished()) {
+                finished.add(job);
+            }
+        }
+        finished.sort(Comparator.comparing(job -> job.submittedAt));
+        finished.stream().limit(excess).forEach(job -> jobs.remove(job.id));
+    }
+
+    private static class Job {
+        private final String id;
+        private final String type;
+        private final int totalSteps;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+
+        private JobDTO.State state = JobDTO.State.QUEUED;
+        private int completedSteps;
+        private String message;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private Object result;
+
+        Job(String id, String type, int totalSteps) {
+            this.id = id;
+            this.type = type;
+            this.totalSteps = totalSteps;
+        }
+
+        synchronized void start() {
+            state = JobDTO.State.RUNNING;
+            startedAt = LocalDateTime.now();
+        }
+
+        synchronized void step(String message) {
+            completedSteps = Math.min(totalSteps, completedSteps + 1);
+            this.message = message;
+        }
+
+        synchronized void succeed(Object result) {
+            state = JobDTO.State.SUCCEEDED;
+            completedSteps = totalSteps;
+            this.result = result;
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized void fail(String reason) {
+            state = JobDTO.State.FAILED;
+            message = reason;
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        synchronized JobDTO snapshot(boolean withResult) {
+            return JobDTO.builder()
+                    .id(id)
+                    .type(type)
+                    .state(state)
+                    .completedSteps(completedSteps)
+                    .totalSteps(totalSteps)
+                    .message(message)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .result(withResult ? result : null)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Machine;
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.optimizer.CleaningCostMatrix;
+import com.rainbow.scheduler.optimizer.FamilyInsertionEngine;
+import com.rainbow.scheduler.service.strategy.SchedulingStrategy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Splits the base schedule across parallel dye vats.
+ *
+ * Critical orders are dealt out first, earliest deadline first, to the machine that would
+ * finish them soonest. The remaining orders are cut into same-family chunks and placed
+ * largest chunk first (LPT), each on the machine where it would finish earliest counting the
+ * colour change. Several chunk granularities are tried in parallel; each candidate is
+ * sequenced greedily per machine and scored by makespan + total cleaning minutes.
+ */
+@Service
+@RequiredArgsConstructor
+public class MachineAssignmentService {
+
+    private static final int[] CHUNKS_PER_FAMILY = { 1, 2, 4, 8, 16 };
+
+    private final CleaningService cleaningService;
+
+    @Value("${production.setup-time-minutes:15}")
+    private int setupTimeMinutes;
+
+    /**
+     * @return base sequence per machine id, in the order the machines were given
+     */
+    public Map<String, List<Order>> assign(List<Order> baseSeq, List<Machine> machines, LocalDateTime planStart) {
+        if (machines.size() == 1) {
+            Map<String, List<Order>> single = new LinkedHashMap<>();
+            single.put(machines.get(0).getId(), baseSeq);
+            return single;
+        }
+
+        return IntStream.range(0, CHUNKS_PER_FAMILY.length).parallel()
+                .mapToObj(i -> evaluate(i, candidate(baseSeq, machines, planStart, CHUNKS_PER_FAMILY[i]),
+                        machines, planStart))
+                .min(Comparator.comparingLong(Candidate::score).thenComparingInt(Candidate::index))
+                .orElseThrow()
+                .assignment();
+    }
+
+    private Map<String, List<Order>> candidate(List<Order> baseSeq, List<Machine> machines,
+            LocalDateTime planStart, int chunksPerFamily) {
+        int m = machines.size();
+        List<List<Order>> assigned = new ArrayList<>(m);
+        long[] load = new long[m];
+        int[] lastFamily = new int[m];
+        for (int i = 0; i < m; i++) {
+            assigned.add(new ArrayList<>());
+            load[i] = offsetMinutes(machines.get(i), planStart);
+            lastFamily[i] = machines.get(i).getCurrentColorFamily().ordinal();
+        }
+
+        // Critical orders: already in deadline order in the base schedule
+        for (Order order : baseSeq) {
+            if (order.isCritical()) {
+                place(List.of(order), machines, assigned, load, lastFamily);
+            }
+        }
+
+        // Non-critical orders: same-family chunks, largest first
+        List<List<Order>> chunks = new ArrayList<>();
+        for (ColorFamily family : ColorFamily.values()) {
+            List<Order> members = baseSeq.stream()
+                    .filter(o -> !o.isCritical() && o.getColorFamily() == family)
+                    .toList();
+            if (members.isEmpty()) {
+                continue;
+            }
+            int chunkSize = (int) Math.ceil((double) members.size() / chunksPerFamily);
+            for (int from = 0; from < members.size(); from += chunkSize) {
+                chunks.add(members.subList(from, Math.min(members.size(), from + chunkSize)));
+            }
+        }
+        chunks.sort(Comparator.comparingLong((List<Order> c) -> c.stream().mapToLong(Order::getQuantityMeters).sum())
+                .reversed());
+        for (List<Order> chunk : chunks) {
+            place(chunk, machines, assigned, load, lastFamily);
+        }
+
+        Map<String, List<Order>> assignment = new LinkedHashMap<>();
+        for (int i = 0; i < m; i++) {
+            assignment.put(machines.get(i).getId(), assigned.get(i));
+        }
+        return assignment;
+    }
+
+    private void place(List<Order> chunk, List<Machine> machines, List<List<Order>> assigned, long[] load,
+            int[] lastFamily) {
+        int family = chunk.get(0).getColorFamily().ordinal();
+        int best = -1;
+        long bestFinish = Long.MAX_VALUE;
+        for (int i = 0; i < machines.size(); i++) {
+            CleaningCostMatrix matrix = cleaningService.getMatrix(machines.get(i).getId());
+            long finish = load[i] + matrix.cost(lastFamily[i], family)
+                    + (long) matrix.cost(family, family) * (chunk.size() - 1)
+                    + chunkMinutes(chunk, machines.get(i));
+            if (finish < bestFinish) {
+                bestFinish = finish;
+                best = i;
+            }
+        }
+        assigned.get(best).addAll(chunk);
+        load[best] = bestFinish;
+        lastFamily[best] = family;
+    }
+
+    private Candidate evaluate(int index, Map<String, List<Order>> assignment, List<Machine> machines,
+            LocalDateTime planStart) {
+        long makespan = 0;
+        long cleaning = 0;
+        for (Machine machine : machines) {
+            List<Order> base = assignment.get(machine.getId());
+            if (base.isEmpty()) {
+                continue;
+            }
+            CleaningCostMatrix matrix = cleaningService.getMatrix(machine.getId());
+            List<Order> sequence = new FamilyInsertionEngine(matrix, machine.getCurrentColorFamily(),
+                    SchedulingStrategy.CRITICAL_WINDOW).insertAll(base);
+            long time = offsetMinutes(machine, planStart);
+            int last = machine.getCurrentColorFamily().ordinal();
+            for (Order order : sequence) {
+                int family = order.getColorFamily().ordinal();
+                int clean = matrix.cost(last, family);
+                cleaning += clean;
+                time += clean + setupTimeMinutes + productionMinutes(order, machine);
+                last = family;
+            }
+            makespan = Math.max(makespan, time);
+        }
+        return new Candidate(index, assignment, makespan + cleaning);
+    }
+
+    private long chunkMinutes(List<Order> chunk, Machine machine) {
+        long minutes = 0;
+        for (Order order : chunk) {
+            minutes += setupTimeMinutes + productionMinutes(order, machine);
+        }
+        return minutes;
+    }
+
+    public static long productionMinutes(Order order, Machine machine) {
+        return (long) ((double) order.getQuantityMeters() / machine.getDyeingSpeed() * 60);
+    }
+
+    private static long offsetMinutes(Machine machine, LocalDateTime planStart) {
+        if (machine.getAvailableFrom() == null || !machine.getAvailableFrom().isAfter(planStart)) {
+            return 0;
+        }
+        return Duration.between(planStart, machine.getAvailableFrom()).toMinutes();
+    }
+
+    private record Candidate(int index, Map<String, List<Order>> assignment, long score) {
+    }
+}
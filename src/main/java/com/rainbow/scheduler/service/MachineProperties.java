@@ -0,0 +1,27 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.model.Machine;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dye vats of the plant.
+ * <pre>
+ * production.machines[0].id=JET-1
+ * production.machines[0].dyeing-speed=50
+ * production.machines[0].current-color-family=DARK_COLORS
+ * </pre>
+ * With no machines configured the plant is a single machine running at
+ * production.dyeing-speed-meters-per-hour.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "production")
+public class MachineProperties {
+
+    private List<Machine> machines = new ArrayList<>();
+}
@@ -0,0 +1,132 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.optimizer.AnnealingEngine;
+import com.rainbow.scheduler.optimizer.AnnealingSettings;
+import com.rainbow.scheduler.optimizer.CleaningCostMatrix;
+import com.rainbow.scheduler.optimizer.SequenceObjective;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+
+/**
+ * Runs independent annealing chains in parallel on a dedicated ForkJoinPool and keeps the best.
+ * Every chain gets its own SplittableRandom split from one root seed, so passing the same seed
+ * back in replays a run, as long as no chain was stopped by the time budget.
+ */
+@Service
+@RequiredArgsConstructor
+public class MultiStartOptimizer {
+
+    private final SchedulerMetrics schedulerMetrics;
+
+    @Value("${optimizer.multi-start.chains:4}")
+    private int chains;
+
+    @Value("${optimizer.multi-start.parallelism:0}")
+    private int parallelism;
+
+    @Value("${optimizer.multi-start.seed:#{null}}")
+    private Long configuredSeed;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void startPool() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("annealer-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    void stopPool() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * The requested seed, else the configured one, otherwise a fresh one.
+     */
+    public long resolveSeed(Long requestedSeed) {
+        if (requestedSeed != null) {
+            return requestedSeed;
+        }
+        return configuredSeed != null ? configuredSeed : new SplittableRandom().nextLong();
+    }
+
+    /**
+     * @param objective what the chains minimize; null minimizes cleaning minutes
+     */
+    public Result optimize(List<Order> initial, CleaningCostMatrix matrix, ColorFamily startFamily,
+            AnnealingSettings settings, long seed, SequenceObjective objective) {
+        return schedulerMetrics.time(SchedulerMetrics.ANNEALING,
+                () -> runChains(initial, matrix, startFamily, settings, seed, objective));
+    }
+
+    private Result runChains(List<Order> initial, CleaningCostMatrix matrix, ColorFamily startFamily,
+            AnnealingSettings settings, long seed, SequenceObjective objective) {
+        AnnealingEngine.Result best;
+        SplittableRandom root = new SplittableRandom(seed);
+        if (chains <= 1) {
+            best = new AnnealingEngine(matrix, startFamily, null, settings, objective).anneal(initial, root.split());
+            schedulerMetrics.annealingMoves(best.movesTried(), best.movesAccepted());
+            return new Result(best.sequence(), seed, 1, best, best.stoppedOnTime());
+        }
+
+        List<Callable<AnnealingEngine.Result>> tasks = new ArrayList<>(chains);
+        for (int i = 0; i < chains; i++) {
+            SplittableRandom chainRandom = root.split();
+            tasks.add(() -> new AnnealingEngine(matrix, startFamily, null, settings, objective)
+                    .anneal(initial, chainRandom));
+        }
+
+        best = null;
+        long tried = 0;
+        long accepted = 0;
+        boolean stoppedOnTime = false;
+        try {
+            // Futures come back in submission order; strict < keeps the lowest chain on ties
+            for (Future<AnnealingEngine.Result> future : pool.invokeAll(tasks)) {
+                AnnealingEngine.Result chainResult = future.get();
+                tried += chainResult.movesTried();
+                accepted += chainResult.movesAccepted();
+                stoppedOnTime |= chainResult.stoppedOnTime();
+                if (best == null || chainResult.cost() < best.cost()) {
+                    best = chainResult;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Schedule optimization was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Annealing chain failed", e.getCause());
+        }
+        schedulerMetrics.annealingMoves(tried, accepted);
+        return new Result(best.sequence(), seed, chains, best, stoppedOnTime);
+    }
+
+    /**
+     * @param sequence      best sequence over all chains
+     * @param seed          root seed the chains were split from
+     * @param chains        number of chains that ran
+     * @param best          the winning chain's result
+     * @param stoppedOnTime some chain was stopped by the time budget, so the seed does not replay the run
+     */
+    public record Result(List<Order> sequence, long seed, int chains, AnnealingEngine.Result best,
+            boolean stoppedOnTime) {
+    }
+}
@@ -0,0 +1,282 @@
+package com.rainbow.scheduler.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rainbow.scheduler.dto.ImportReportDTO;
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.model.OrderStatus;
+import com.rainbow.scheduler.model.OrderType;
+import com.rainbow.scheduler.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Order intake rules shared by the single-order endpoint and the bulk import, plus the
+ * streaming CSV / NDJSON import itself.
+ *
+ * The import reads the body line by line and writes accepted orders in batches of
+ * scheduler.import.batch-size, one transaction per batch, so memory stays flat however
+ * large the export is. Rejected lines are reported and do not stop the import.
+ *
+ * Capacity is re-read before every insert, and checks and inserts of all imports and single
+ * orders are serialized, so concurrent intake cannot push the table past FACTORY_CAPACITY.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderImportService {
+
+    public static final int FACTORY_CAPACITY = 1000;
+    public static final int MIN_QUANTITY_METERS = 100;
+
+    public static final String CAPACITY_MESSAGE = "Factory capacity reached (" + FACTORY_CAPACITY
+            + " orders). Please clear or process existing orders.";
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final Object intake = new Object();
+
+    @Value("${scheduler.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${scheduler.import.max-reported-errors:200}")
+    private int maxReportedErrors;
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    /**
+     * Why the order cannot be accepted, or null when it can. Capacity is checked separately.
+     */
+    public String rejectReason(Order order) {
+        if (order.getQuantityMeters() < MIN_QUANTITY_METERS) {
+            return "Minimum order size is " + MIN_QUANTITY_METERS + " meters.";
+        }
+        if (order.getColorFamily() == null) {
+            return "colorFamily is required.";
+        }
+        if (order.getOrderType() == null) {
+            return "orderType is required.";
+        }
+        if (order.getDeadlineHours() <= 0) {
+            return "deadlineHours must be positive.";
+        }
+        return null;
+    }
+
+    /**
+     * Fills in what a new order gets (creation time if missing, PENDING, no plan). Status and plan
+     * fields sent by the client are dropped: a new order must not arrive already started or
+     * completed, or it would be frozen by the next plan.
+     */
+    public Order prepare(Order order) {
+        if (order.getCreatedAt() == null) {
+            order.setCreatedAt(LocalDateTime.now());
+        }
+        order.setStatus(OrderStatus.PENDING);
+        order.setCritical(false);
+        order.setUrgencyScore(0);
+        order.setProductionTimeHours(0);
+        order.setMachineId(null);
+        order.setScheduledStartTime(null);
+        order.setScheduledEndTime(null);
+        return order;
+    }
+
+    /**
+     * Prepares and saves a new order if the factory has room.
+     *
+     * @return the saved order, or empty when the factory is at capacity
+     */
+    public Optional<Order> create(Order order) {
+        synchronized (intake) {
+            if (orderRepository.count() >= FACTORY_CAPACITY) {
+                return Optional.empty();
+            }
+            return Optional.of(orderRepository.save(prepare(order)));
+        }
+    }
+
+    public ImportReportDTO importOrders(InputStream body, Format format) throws IOException {
+        long started = System.nanoTime();
+        long linesRead = 0;
+        long imported = 0;
+        Report report = new Report();
+        List<Order> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        Map<String, Integer> header = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            linesRead++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && header == null) {
+                header = parseHeader(line);
+                continue;
+            }
+
+            String error;
+            Order order = null;
+            try {
+                order = format == Format.CSV ? parseCsv(line, header) : objectMapper.readValue(line, Order.class);
+                error = rejectReason(order);
+            } catch (IOException | RuntimeException e) {
+                error = "Unreadable record: " + (e.getMessage() == null ? e.getClass().getSimpleName()
+                        : e.getMessage().lines().findFirst().orElse(""));
+            }
+            if (error == null && report.full) {
+                error = CAPACITY_MESSAGE;
+            }
+
+            if (error != null) {
+                report.reject(linesRead, error);
+                continue;
+            }
+            order.setId(null);
+            order.setSimulationRunId(null);
+            batch.add(prepare(order));
+            batchLines.add(linesRead);
+            if (batch.size() == batchSize) {
+                imported += flush(batch, batchLines, report);
+            }
+        }
+        imported += flush(batch, batchLines, report);
+
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        return ImportReportDTO.builder()
+                .linesRead(linesRead)
+                .imported(imported)
+                .rejected(report.rejected)
+                .elapsedMs(elapsedMs)
+                .ordersPerSecond(elapsedMs > 0 ? imported * 1000.0 / elapsedMs : imported)
+                .errorsTruncated(report.rejected > report.errors.size())
+                .errors(report.errors)
+                .build();
+    }
+
+    /**
+     * Inserts as much of the batch as the factory has room for right now; the rest is rejected
+     * for capacity.
+     */
+    private int flush(List<Order> batch, List<Long> lines, Report report) {
+        int inserted = 0;
+        if (!batch.isEmpty()) {
+            synchronized (intake) {
+                long room = Math.max(0, FACTORY_CAPACITY - orderRepository.count());
+                inserted = (int) Math.min(room, batch.size());
+                if (inserted > 0) {
+                    orderRepository.batchInsert(batch.subList(0, inserted));
+                }
+            }
+            for (int i = inserted; i < batch.size(); i++) {
+                report.full = true;
+                report.reject(lines.get(i), CAPACITY_MESSAGE);
+            }
+            batch.clear();
+            lines.clear();
+        }
+        return inserted;
+    }
+
+    /**
+     * Rejected lines of one import; only the first scheduler.import.max-reported-errors are kept.
+     */
+    private class Report {
+        private final List<ImportReportDTO.LineError> errors = new ArrayList<>();
+        private long rejected;
+        private boolean full; // Capacity was reached; later lines are rejected without a round trip
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(ImportReportDTO.LineError.builder().line(line).message(message).build());
+            }
+        }
+    }
+
+    /**
+     * Column name (lower case) to index; columns may come in any order, unknown ones are ignored.
+     */
+    private static Map<String, Integer> parseHeader(String line) {
+        List<String> columns = splitCsv(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return header;
+    }
+
+    private static Order parseCsv(String line, Map<String, Integer> header) {
+        List<String> fields = splitCsv(line);
+        String createdAt = field(fields, header, "createdat");
+        String quantity = field(fields, header, "quantitymeters");
+        String deadline = field(fields, header, "deadlinehours");
+        String family = field(fields, header, "colorfamily");
+        String type = field(fields, header, "ordertype");
+        return Order.builder()
+                .colorName(field(fields, header, "colorname"))
+                .colorFamily(family == null ? null : ColorFamily.valueOf(family.toUpperCase(Locale.ROOT)))
+                .orderType(type == null ? null : OrderType.valueOf(type.toUpperCase(Locale.ROOT)))
+                .quantityMeters(quantity == null ? 0 : Integer.parseInt(quantity))
+                .deadlineHours(deadline == null ? 0 : Integer.parseInt(deadline))
+                .createdAt(createdAt == null ? null : LocalDateTime.parse(createdAt))
+                .build();
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> header, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * RFC 4180 fields of one line: commas inside double quotes, "" for a literal quote.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
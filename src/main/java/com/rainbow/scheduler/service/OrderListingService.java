@@ -0,0 +1,136 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.dto.OrderPageDTO;
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.model.OrderStatus;
+import com.rainbow.scheduler.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Keyset pagination over orders in plan order: scheduled start, then id, unscheduled orders last.
+ *
+ * Each page is read in at most two index range scans on (scheduled_start_time, id): scheduled
+ * orders after the cursor, then, once those run out, unscheduled orders after the cursor id.
+ * Unlike offset paging the cost of a page does not grow with how far the client has scrolled.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderListingService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final Sort PLAN_ORDER = Sort.by("scheduledStartTime", "id");
+    private static final Sort ID_ORDER = Sort.by("id");
+
+    private final OrderRepository orderRepository;
+
+    /**
+     * @throws IllegalArgumentException when the cursor is malformed or the size is out of range
+     */
+    public OrderPageDTO page(String cursor, int size, OrderStatus status, ColorFamily colorFamily,
+            Long simulationRunId) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Cursor after = cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+        Specification<Order> filters = filters(status, colorFamily, simulationRunId);
+
+        // One extra row tells whether there is a next page
+        List<Order> rows = new ArrayList<>(size + 1);
+        if (after == null || after.start() != null) {
+            rows.addAll(fetch(filters.and(scheduledAfter(after)), PLAN_ORDER, size + 1));
+        }
+        if (rows.size() <= size) {
+            long afterId = after != null && after.start() == null ? after.id() : Long.MIN_VALUE;
+            rows.addAll(fetch(filters.and(unscheduledAfter(afterId)), ID_ORDER, size + 1 - rows.size()));
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            Order last = rows.get(size - 1);
+            nextCursor = new Cursor(last.getScheduledStartTime(), last.getId()).encode();
+        }
+        return OrderPageDTO.builder()
+                .orders(rows)
+                .nextCursor(nextCursor)
+                .totalOrders(orderRepository.count())
+                .build();
+    }
+
+    /**
+     * Every order in plan order (the unpaged listing).
+     */
+    public List<Order> all() {
+        List<Order> orders = new ArrayList<>(orderRepository.findAll(scheduledAfter(null), PLAN_ORDER));
+        orders.addAll(orderRepository.findAll(unscheduledAfter(Long.MIN_VALUE), ID_ORDER));
+        return orders;
+    }
+
+    private List<Order> fetch(Specification<Order> spec, Sort sort, int limit) {
+        return orderRepository.findBy(spec, q -> q.sortBy(sort).limit(limit).all());
+    }
+
+    private static Specification<Order> filters(OrderStatus status, ColorFamily colorFamily, Long simulationRunId) {
+        Specification<Order> spec = Specification.where(null);
+        if (status != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+        if (colorFamily != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("colorFamily"), colorFamily));
+        }
+        if (simulationRunId != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("simulationRunId"), simulationRunId));
+        }
+        return spec;
+    }
+
+    private static Specification<Order> scheduledAfter(Cursor after) {
+        return (root, query, cb) -> {
+            if (after == null) {
+                return cb.isNotNull(root.get("scheduledStartTime"));
+            }
+            return cb.or(cb.greaterThan(root.get("scheduledStartTime"), after.start()),
+                    cb.and(cb.equal(root.get("scheduledStartTime"), after.start()),
+                            cb.greaterThan(root.get("id"), after.id())));
+        };
+    }
+
+    private static Specification<Order> unscheduledAfter(long afterId) {
+        return (root, query, cb) -> cb.and(cb.isNull(root.get("scheduledStartTime")),
+                cb.greaterThan(root.get("id"), afterId));
+    }
+
+    /**
+     * Position of the last row of a page; opaque to clients (URL-safe base64 of "start|id").
+     */
+    private record Cursor(LocalDateTime start, long id) {
+
+        String encode() {
+            String raw = (start == null ? "" : start.toString()) + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int bar = raw.indexOf('|');
+                String start = raw.substring(0, bar);
+                return new Cursor(start.isEmpty() ? null : LocalDateTime.parse(start),
+                        Long.parseLong(raw.substring(bar + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
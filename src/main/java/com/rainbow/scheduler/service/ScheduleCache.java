@@ -0,0 +1,136 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.dto.CacheStatsDTO;
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.model.Schedule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Bounded LRU cache of generated schedules, keyed by a fingerprint of everything the plan
+ * depends on (see SchedulingService). Entries expire after scheduler.cache.ttl-seconds and are
+ * dropped as soon as one of their orders, or the batch they belong to, changes.
+ * The plan start is part of the key: during the working day it moves on every
+ * production.replan-step-minutes, so generates within one step hit and the first one in the
+ * next step re-plans from the later start.
+ *
+ * Stored and returned schedules are copies, so callers may modify what they get.
+ */
+@Service
+public class ScheduleCache {
+
+    @Value("${scheduler.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${scheduler.cache.max-entries:32}")
+    private int maxEntries;
+
+    @Value("${scheduler.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized Optional<Schedule> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.storedAt().plus(Duration.ofSeconds(ttlSeconds)).isBefore(Instant.now())) {
+            entries.remove(key);
+            evictions++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        return Optional.of(copy(entry.schedule()));
+    }
+
+    public synchronized void put(String key, Schedule schedule, Collection<Order> orders) {
+        Set<Long> orderIds = new HashSet<>();
+        Set<Long> batches = new HashSet<>(); // simulationRunId, null for manual orders
+        for (Order order : orders) {
+            orderIds.add(order.getId());
+            batches.add(order.getSimulationRunId());
+        }
+        entries.put(key, new Entry(copy(schedule), orderIds, batches, Instant.now()));
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Drops every plan that contains the order or covers its batch (a new order changes the batch).
+     */
+    public synchronized void invalidate(Order order) {
+        invalidateWhere(entry -> entry.orderIds().contains(order.getId())
+                || entry.batches().contains(order.getSimulationRunId()));
+    }
+
+    /**
+     * Drops every plan of one batch; null for manual orders.
+     */
+    public synchronized void invalidateBatch(Long simulationRunId) {
+        invalidateWhere(entry -> entry.batches().contains(simulationRunId));
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized CacheStatsDTO stats() {
+        long lookups = hits + misses;
+        return CacheStatsDTO.builder()
+                .enabled(enabled)
+                .size(entries.size())
+                .maxEntries(maxEntries)
+                .hits(hits)
+                .misses(misses)
+                .evictions(evictions)
+                .invalidations(invalidations)
+                .hitRate(lookups == 0 ? 0 : (double) hits / lookups)
+                .build();
+    }
+
+    private void invalidateWhere(java.util.function.Predicate<Entry> stale) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            if (stale.test(it.next().getValue())) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    private static Schedule copy(Schedule schedule) {
+        return schedule.toBuilder()
+                .slots(new java.util.ArrayList<>(schedule.getSlots()))
+                .changedSlots(java.util.List.of())
+                .build();
+    }
+
+    private record Entry(Schedule schedule, Set<Long> orderIds, Set<Long> batches, Instant storedAt) {
+    }
+}
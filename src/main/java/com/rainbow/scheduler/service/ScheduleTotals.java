@@ -0,0 +1,44 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.model.Schedule;
+import lombok.Getter;
+
+/**
+ * Running totals of a plan delivered in batches, fed one batch at a time. The seed of a
+ * multi-batch run replays it only if it replays every batch.
+ */
+@Getter
+public final class ScheduleTotals {
+
+    private int batches;
+    private int cleaningMinutes;
+    private int fifoCleaningMinutes;
+    private int colorChangeovers;
+    private long tardinessMinutes;
+    private long idleMinutes;
+    private double objectiveScore;
+    private double waterLiters;
+    private double chemicalWasteKg;
+    private long dyedMeters;
+    private Boolean replayable; // Null while no batch was annealed
+
+    public void add(Schedule batch) {
+        batches++;
+        cleaningMinutes += batch.getTotalCleaningTimeMinutes();
+        fifoCleaningMinutes += batch.getFifoCleaningTimeMinutes();
+        colorChangeovers += batch.getColorChangeovers();
+        tardinessMinutes += batch.getTotalTardinessMinutes();
+        idleMinutes += batch.getIdleMinutes();
+        objectiveScore += batch.getObjectiveScore();
+        waterLiters += batch.getTotalWaterLiters();
+        chemicalWasteKg += batch.getTotalChemicalWasteKg();
+        dyedMeters += batch.getDyedMeters();
+        if (batch.getOptimizerReplayable() != null) {
+            replayable = (replayable == null || replayable) && batch.getOptimizerReplayable();
+        }
+    }
+
+    public int timeSavedMinutes() {
+        return Math.max(0, fifoCleaningMinutes - cleaningMinutes);
+    }
+}
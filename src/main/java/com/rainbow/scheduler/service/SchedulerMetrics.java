@@ -0,0 +1,77 @@
+package com.rainbow.scheduler.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Meters of the scheduling pipeline, scraped from /actuator/prometheus.
+ *
+ * scheduler.phase (timer, tag phase): analyze, base-sequence, campaign (merging the base
+ * sequence into dye lots), assign, sequence (per machine, tagged with the strategy),
+ * annealing (all chains of one run; strategy=incremental for the window re-annealed around a
+ * new order), map-slots, persist, archive and convert (which includes archive).
+ */
+@Component
+@RequiredArgsConstructor
+public class SchedulerMetrics {
+
+    public static final String ANALYZE = "analyze";
+    public static final String BASE_SEQUENCE = "base-sequence";
+    public static final String CAMPAIGN = "campaign";
+    public static final String ASSIGN = "assign";
+    public static final String SEQUENCE = "sequence";
+    public static final String ANNEALING = "annealing";
+    public static final String MAP_SLOTS = "map-slots";
+    public static final String PERSIST = "persist";
+    public static final String ARCHIVE = "archive";
+    public static final String CONVERT = "convert";
+
+    private final MeterRegistry registry;
+
+    public <T> T time(String phase, Supplier<T> work) {
+        return phaseTimer(phase, "all").record(work);
+    }
+
+    public <T> T time(String phase, String strategy, Supplier<T> work) {
+        return phaseTimer(phase, strategy).record(work);
+    }
+
+    public void time(String phase, Runnable work) {
+        phaseTimer(phase, "all").record(work);
+    }
+
+    public void annealingMoves(long tried, long accepted) {
+        Counter.builder("scheduler.annealing.moves").tag("result", "tried")
+                .description("Candidate moves drawn by the annealing chains")
+                .register(registry).increment(tried);
+        Counter.builder("scheduler.annealing.moves").tag("result", "accepted")
+                .description("Moves applied by the annealing chains")
+                .register(registry).increment(accepted);
+    }
+
+    /**
+     * One generated plan: its size and the cleaning it saves against FIFO order.
+     */
+    public void run(String strategy, int orders, int cleaningSavedMinutes) {
+        DistributionSummary.builder("scheduler.run.orders").tag("strategy", strategy)
+                .description("Orders per generated plan")
+                .register(registry).record(orders);
+        Counter.builder("scheduler.cleaning.saved").tag("strategy", strategy).baseUnit("minutes")
+                .description("Cleaning minutes saved against FIFO order")
+                .register(registry).increment(Math.max(0, cleaningSavedMinutes));
+    }
+
+    private Timer phaseTimer(String phase, String strategy) {
+        return Timer.builder("scheduler.phase")
+                .tag("phase", phase)
+                .tag("strategy", strategy)
+                .description("Time spent in one phase of schedule generation")
+                .register(registry);
+    }
+}
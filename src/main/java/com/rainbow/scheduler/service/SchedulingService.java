@@ -1,24 +1,54 @@
 package com.rainbow.scheduler.service;
 
 import com.rainbow.scheduler.model.*;
+import com.rainbow.scheduler.optimizer.CleaningCostMatrix;
+import com.rainbow.scheduler.optimizer.ExactFamilySequencer;
+import com.rainbow.scheduler.optimizer.ObjectiveWeights;
+import com.rainbow.scheduler.optimizer.ProductionClock;
+import com.rainbow.scheduler.optimizer.SequenceObjective;
+import com.rainbow.scheduler.optimizer.SlotTimeline;
 import com.rainbow.scheduler.repository.OrderRepository;
 import com.rainbow.scheduler.repository.SimulationRunRepository;
+import com.rainbow.scheduler.service.strategy.SchedulingStrategy;
+import com.rainbow.scheduler.service.strategy.SchedulingStrategyRegistry;
+import com.rainbow.scheduler.service.strategy.StrategyContext;
+import com.rainbow.scheduler.service.strategy.StrategyResult;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import com.rainbow.scheduler.dto.ScheduleOptions;
 import com.rainbow.scheduler.dto.ScheduleResponseDTO;
 
 @Service
 @RequiredArgsConstructor
 public class SchedulingService {
 
+    public static final long MAX_TIME_BUDGET_MS = 60_000;
+
+    public static final String MINIMIZE_MINUTES = "minutes";
+    public static final String MINIMIZE_WATER = "water";
+
+    private static final String DEFAULT_MACHINE_ID = "M1";
+
     private final CleaningService cleaningService;
     private final SimulationRunRepository simulationRunRepository;
     private final OrderRepository orderRepository;
+    private final MultiStartOptimizer multiStartOptimizer;
+    private final SchedulingStrategyRegistry strategyRegistry;
+    private final MachineAssignmentService machineAssignmentService;
+    private final MachineProperties machineProperties;
+    private final ScheduleCache scheduleCache;
+    private final SchedulerMetrics schedulerMetrics;
+    private final ShiftCalendarService shiftCalendarService;
+    private final CampaignService campaignService;
+    private final EcoService ecoService;
+    private final Clock wallClock;
 
     @Value("${production.dyeing-speed-meters-per-hour:50}")
     private int dyeingSpeed;
@@ -29,6 +59,24 @@ public class SchedulingService {
     @Value("${production.start-hour:8}")
     private int startHour;
 
+    @Value("${production.replan-step-minutes:15}")
+    private int replanStepMinutes;
+
+    @Value("${optimizer.objective.cleaning-weight:1.0}")
+    private double cleaningWeight;
+
+    @Value("${optimizer.objective.changeover-weight:0}")
+    private double changeoverWeight;
+
+    @Value("${optimizer.objective.tardiness-weight:0}")
+    private double tardinessWeight;
+
+    @Value("${optimizer.objective.idle-weight:0}")
+    private double idleWeight;
+
+    @Value("${optimizer.objective.minimize:minutes}")
+    private String minimize;
+
     public List<Order> analyzeOrders(List<Order> orders) {
         return orders.stream().map(order -> {
             double prodTimeHours = (double) order.getQuantityMeters() / dyeingSpeed;
@@ -57,199 +105,648 @@ public class SchedulingService {
         return baseSeq;
     }
 
-    public List<Order> optimizeSequence(List<Order> baseSeq) {
-        LinkedList<Order> optimized = new LinkedList<>();
-        if (baseSeq.isEmpty())
-            return baseSeq;
+    public Schedule generateOptimizedSchedule(List<Order> orders) {
+        return generateOptimizedSchedule(orders, ScheduleOptions.defaults());
+    }
 
-        for (Order order : baseSeq) {
-            if (optimized.isEmpty()) {
-                optimized.add(order);
-                continue;
+    /**
+     * Analyze, sequence with the requested strategy, map to slots and persist the planned times.
+     * Completed and already started orders are frozen: they keep their slots, are not written
+     * back, and each machine resumes from the colour and end time of its last frozen slot.
+     * A plan for exactly the same inputs is served from {@link ScheduleCache} instead.
+     *
+     * @throws IllegalArgumentException when the requested strategy does not exist
+     */
+    public Schedule generateOptimizedSchedule(List<Order> orders, ScheduleOptions options) {
+        return plan(orders, options, true, LocalDateTime.now(wallClock));
+    }
+
+    /**
+     * Same plan as {@link #generateOptimizedSchedule} for orders that only live in memory:
+     * nothing is cached or written back.
+     */
+    public Schedule simulate(List<Order> orders, ScheduleOptions options) {
+        return simulate(orders, options, LocalDateTime.now(wallClock));
+    }
+
+    /**
+     * {@link #simulate} as if it were {@code now}, so a replayed simulation plans the same days.
+     */
+    public Schedule simulate(List<Order> orders, ScheduleOptions options, LocalDateTime now) {
+        return plan(orders, options, false, now);
+    }
+
+    private Schedule plan(List<Order> orders, ScheduleOptions options, boolean persist, LocalDateTime now) {
+        SchedulingStrategy strategy = strategyRegistry.get(options.getStrategy());
+        List<Machine> configured = resolveMachines(options.getMachines());
+        LocalDateTime planStart = planStart(now);
+
+        Map<Boolean, List<Order>> split = orders.stream()
+                .collect(Collectors.partitioningBy(o -> isFrozen(o, now)));
+        Map<String, List<ScheduleSlot>> frozenSlots = new HashMap<>();
+        List<Machine> machines = new ArrayList<>();
+        Map<String, List<Order>> frozenByMachine = groupFrozen(split.get(true), configured);
+        for (Machine machine : configured) {
+            List<Order> pinned = frozenByMachine.getOrDefault(machine.getId(), List.of());
+            frozenSlots.put(machine.getId(), frozenSlots(pinned, machine));
+            machines.add(resume(machine, pinned, now));
+        }
+        String cacheKey = persist && scheduleCache.isEnabled()
+                ? fingerprint(orders, split.get(true), planStart, machines, strategy.getName(), options)
+                : null;
+        if (cacheKey != null) {
+            Optional<Schedule> cached = scheduleCache.get(cacheKey);
+            if (cached.isPresent()) {
+                return reuse(cached.get(), orders);
             }
-            int bestPos = optimized.size();
-            int minAddedCleaning = cleaningService.calculateCleaningTime(optimized.getLast().getColorFamily(),
-                    order.getColorFamily());
-            for (int i = 0; i < optimized.size(); i++) {
-                ColorFamily prevFamily = (i == 0) ? ColorFamily.WHITES_PASTELS : optimized.get(i - 1).getColorFamily();
-                ColorFamily currentFamily = optimized.get(i).getColorFamily();
-                int cleaningBeforeIfInserted = cleaningService.calculateCleaningTime(prevFamily,
-                        order.getColorFamily());
-                int cleaningAfterIfInserted = cleaningService.calculateCleaningTime(order.getColorFamily(),
-                        currentFamily);
-                int cleaningSavedOld = cleaningService.calculateCleaningTime(prevFamily, currentFamily);
-                int extraCleaning = cleaningBeforeIfInserted + cleaningAfterIfInserted - cleaningSavedOld;
-                if (extraCleaning < minAddedCleaning) {
-                    if (!order.isCritical() || i < 15) { // More flexibility for non-critical
-                        minAddedCleaning = extraCleaning;
-                        bestPos = i;
+        }
+        List<Order> analyzed = schedulerMetrics.time(SchedulerMetrics.ANALYZE, () -> analyzeOrders(split.get(false)));
+        Map<Order, List<Object>> previousSlots = new IdentityHashMap<>();
+        analyzed.forEach(order -> previousSlots.put(order, slotKey(order)));
+
+        List<Order> baseSequence = schedulerMetrics.time(SchedulerMetrics.BASE_SEQUENCE,
+                () -> generateBaseSchedule(analyzed));
+        Campaign campaign = schedulerMetrics.time(SchedulerMetrics.CAMPAIGN, () -> campaignService.form(baseSequence));
+        Map<String, List<Order>> assignment = schedulerMetrics.time(SchedulerMetrics.ASSIGN,
+                () -> machineAssignmentService.assign(campaign.lots(), machines, planStart));
+        // One seed for every machine so a multi-machine run can be replayed as a whole
+        long seed = resolveSeed(options.getSeed());
+
+        ObjectiveWeights weights = objectiveWeights(options);
+        ProductionClock clock = productionClock(now.toLocalDate());
+
+        // Phases 3-4 are strategy specific (greedy insertion, annealing, exact sequencing...), one machine per task
+        List<StrategyResult> results = machines.parallelStream()
+                .map(machine -> schedulerMetrics.time(SchedulerMetrics.SEQUENCE, strategy.getName(),
+                        () -> strategy.sequence(assignment.get(machine.getId()), new StrategyContext(
+                                cleaningService.getMatrix(machine.getId()), machine.getCurrentColorFamily(),
+                                options.getTimeBudgetMs(), seed, SequenceObjective.of(weights, clock,
+                                        machineStart(machine, planStart), machine.getDyeingSpeed())))))
+                .collect(Collectors.toList());
+
+        SlotTimeline timeline = schedulerMetrics.time(SchedulerMetrics.MAP_SLOTS,
+                () -> timeline(machines, results, planStart, clock));
+        List<ScheduleSlot> slots = new ArrayList<>(orders.size());
+        EcoService.Tally eco = ecoService.tally();
+        int frozenCleaning = 0;
+        int from = 0;
+        for (int i = 0; i < machines.size(); i++) {
+            Machine machine = machines.get(i);
+            List<Order> machineSequence = results.get(i).sequence();
+            List<ScheduleSlot> pinned = frozenSlots.get(machine.getId());
+            frozenCleaning += pinned.stream().mapToInt(ScheduleSlot::getCleaningBeforeMinutes).sum();
+            pinned.forEach(eco::add);
+            slots.addAll(pinned);
+            slots.addAll(toSlots(timeline, from, machineSequence, machineStart(machine, planStart), machine, campaign,
+                    eco));
+            from += machineSequence.size();
+        }
+
+        Schedule schedule = evaluateSchedule(slots, weights);
+        eco.applyTo(schedule);
+        schedule.setPlanStart(planStart);
+        schedule.setMachines(machines);
+        schedule.setFifoCleaningTimeMinutes(calculateFifoCleaningTime(orders));
+        if (machines.size() == 1) {
+            Integer tailBound = calculateLowerBoundCleaningTime(campaign.lots(), machines.get(0));
+            schedule.setLowerBoundCleaningTimeMinutes(tailBound == null ? null : frozenCleaning + tailBound);
+        }
+        schedule.setStrategy(strategy.getName());
+        List<StrategyResult> searched = results.stream().filter(result -> result.seed() != null).toList();
+        if (!searched.isEmpty()) {
+            schedule.setOptimizerSeed(seed);
+            schedule.setOptimizerReplayable(searched.stream().noneMatch(StrategyResult::stoppedOnTime));
+        }
+
+        // Only orders whose slot actually moved are written back and reported as changed
+        List<ScheduleSlot> changed = slots.stream()
+                .filter(slot -> !slot.isFrozen()
+                        && !slotKey(slot.getOrder()).equals(previousSlots.get(slot.getOrder())))
+                .collect(Collectors.toList());
+        schedule.setChangedSlots(changed);
+        if (persist) {
+            schedulerMetrics.time(SchedulerMetrics.PERSIST,
+                    () -> orderRepository.batchUpdateSchedule(changed.stream().map(ScheduleSlot::getOrder).toList()));
+        }
+        schedulerMetrics.run(strategy.getName(), analyzed.size(),
+                schedule.getFifoCleaningTimeMinutes() - schedule.getTotalCleaningTimeMinutes());
+        if (cacheKey != null) {
+            scheduleCache.put(cacheKey, schedule, orders);
+        }
+        return schedule;
+    }
+
+    /**
+     * Everything the plan depends on: the orders (frozen ones with their pinned slot), the
+     * machines as the pending tail sees them, the production parameters and the strategy inputs.
+     */
+    private String fingerprint(List<Order> orders, List<Order> frozen, LocalDateTime planStart,
+            List<Machine> machines, String strategy, ScheduleOptions options) {
+        Set<Order> pinned = Collections.newSetFromMap(new IdentityHashMap<>());
+        pinned.addAll(frozen);
+        StringBuilder key = new StringBuilder()
+                .append(strategy).append('|').append(options.getTimeBudgetMs()).append('|').append(options.getSeed())
+                .append('|').append(minimize(options))
+                .append('|').append(dyeingSpeed).append('|').append(setupTimeMinutes).append('|').append(planStart);
+        for (Machine machine : machines) {
+            key.append("\nM|").append(machine.getId()).append('|').append(machine.getDyeingSpeed())
+                    .append('|').append(machine.getCurrentColorFamily()).append('|').append(machine.getAvailableFrom());
+        }
+        orders.stream().sorted(Comparator.comparing(Order::getId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .forEach(o -> {
+                    key.append("\nO|").append(o.getId()).append('|').append(o.getColorFamily())
+                            .append('|').append(o.getQuantityMeters()).append('|').append(o.getOrderType())
+                            .append('|').append(o.getDeadlineHours()).append('|').append(o.getStatus())
+                            .append('|').append(o.getCreatedAt());
+                    if (pinned.contains(o)) {
+                        key.append("|F|").append(o.getMachineId()).append('|').append(o.getScheduledStartTime())
+                                .append('|').append(o.getScheduledEndTime());
                     }
-                }
+                });
+        try {
+            byte[] digest = java.security.MessageDigest.getInstance("SHA-256")
+                    .digest(key.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A cached plan applied to this request's order instances. Orders whose stored slot differs
+     * from the plan (another strategy may have run since) are written back and reported as changed.
+     */
+    private Schedule reuse(Schedule cached, List<Order> orders) {
+        Map<Long, Order> byId = orders.stream().collect(Collectors.toMap(Order::getId, o -> o, (a, b) -> a));
+        List<ScheduleSlot> slots = new ArrayList<>(cached.getSlots().size());
+        List<ScheduleSlot> changed = new ArrayList<>();
+        for (ScheduleSlot cachedSlot : cached.getSlots()) {
+            Order planned = cachedSlot.getOrder();
+            Order order = byId.get(planned.getId());
+            ScheduleSlot slot = cachedSlot.toBuilder().order(order).build();
+            slots.add(slot);
+            if (slot.isFrozen()) {
+                continue;
+            }
+            List<Object> previous = slotKey(order);
+            order.setProductionTimeHours(planned.getProductionTimeHours());
+            order.setUrgencyScore(planned.getUrgencyScore());
+            order.setCritical(planned.isCritical());
+            order.setMachineId(slot.getMachineId());
+            order.setScheduledStartTime(slot.getStartTime());
+            order.setScheduledEndTime(slot.getEndTime());
+            if (!slotKey(order).equals(previous)) {
+                changed.add(slot);
             }
-            optimized.add(bestPos, order);
         }
-        return new ArrayList<>(optimized);
+        orderRepository.batchUpdateSchedule(changed.stream().map(ScheduleSlot::getOrder).toList());
+        return cached.toBuilder().slots(slots).changedSlots(changed).build();
     }
 
-    public Schedule generateOptimizedSchedule(List<Order> orders) {
-        List<Order> analyzed = analyzeOrders(orders);
+    private static List<Object> slotKey(Order order) {
+        return Arrays.asList(order.getMachineId(), order.getScheduledStartTime(), order.getScheduledEndTime());
+    }
 
-        // Phase 3: Greedy Look-Ahead
-        List<Order> sequence = optimizeSequence(generateBaseSchedule(analyzed));
+    /**
+     * Where the pending tail starts: the start hour, or if that has passed the next whole
+     * production.replan-step-minutes. Never planning into the past keeps orders that have not
+     * run from looking started on the next generate. Generates within one step share a start,
+     * and so a cache key; the first generate in the next step misses and re-plans.
+     */
+    public LocalDateTime planStart(LocalDateTime now) {
+        LocalDateTime dayStart = now.withHour(startHour).withMinute(0).withSecond(0).withNano(0);
+        if (!now.isAfter(dayStart)) {
+            return dayStart;
+        }
+        long step = Math.max(1, replanStepMinutes);
+        long minutes = ProductionClock.minutesBetween(dayStart, now);
+        return dayStart.plusMinutes((minutes / step + 1) * step);
+    }
 
-        // Phase 4: Iterative Improvement (Simulated Annealing)
-        sequence = runSimulatedAnnealing(sequence);
+    /**
+     * Completed orders, and orders whose planned start has already passed, are not re-planned.
+     */
+    private static boolean isFrozen(Order order, LocalDateTime now) {
+        return order.getStatus() == OrderStatus.COMPLETED
+                || (order.getScheduledStartTime() != null && !order.getScheduledStartTime().isAfter(now));
+    }
 
-        List<ScheduleSlot> slots = mapToSlots(sequence,
-                LocalDateTime.now().withHour(startHour).withMinute(0).withSecond(0).withNano(0));
-        Schedule schedule = evaluateSchedule(slots);
-        schedule.setFifoCleaningTimeMinutes(calculateFifoCleaningTime(analyzed));
+    /**
+     * Frozen orders with a planned slot by machine, in start order. Orders planned on a machine
+     * that is no longer configured (or before machines existed) count against the first one.
+     */
+    private static Map<String, List<Order>> groupFrozen(List<Order> frozen, List<Machine> machines) {
+        Set<String> ids = machines.stream().map(Machine::getId).collect(Collectors.toSet());
+        return frozen.stream()
+                .filter(o -> o.getScheduledStartTime() != null && o.getScheduledEndTime() != null)
+                .sorted(Comparator.comparing(Order::getScheduledStartTime))
+                .collect(Collectors.groupingBy(
+                        o -> ids.contains(o.getMachineId()) ? o.getMachineId() : machines.get(0).getId(),
+                        Collectors.toList()));
+    }
 
-        orderRepository.saveAll(sequence);
-        return schedule;
+    private List<ScheduleSlot> frozenSlots(List<Order> pinned, Machine machine) {
+        CleaningCostMatrix matrix = cleaningService.getMatrix(machine.getId());
+        List<ScheduleSlot> slots = new ArrayList<>();
+        ColorFamily lastFamily = machine.getCurrentColorFamily();
+        LocalDateTime lastEnd = null;
+        for (Order order : pinned) {
+            // Back to back in the same family can only be the same dye lot
+            boolean continuesLot = order.getColorFamily() == lastFamily
+                    && order.getScheduledStartTime().equals(lastEnd);
+            slots.add(ScheduleSlot.builder()
+                    .order(order)
+                    .machineId(machine.getId())
+                    .startTime(order.getScheduledStartTime())
+                    .endTime(order.getScheduledEndTime())
+                    .cleaningBeforeMinutes(continuesLot ? 0 : matrix.cost(lastFamily, order.getColorFamily()))
+                    .continuesLot(continuesLot)
+                    .colorFamily(order.getColorFamily())
+                    .frozen(true)
+                    .build());
+            lastFamily = order.getColorFamily();
+            lastEnd = order.getScheduledEndTime();
+        }
+        return slots;
     }
 
-    private List<Order> runSimulatedAnnealing(List<Order> initialSeq) {
-        List<Order> current = new ArrayList<>(initialSeq);
-        double currentScore = calculateSequenceCleaningTime(current);
-        Random rand = new Random();
+    /**
+     * The machine as the pending tail sees it: colour and clock of its last frozen slot. A
+     * completed order frees the machine no later than now, even if it was planned to run longer.
+     */
+    private static Machine resume(Machine machine, List<Order> pinned, LocalDateTime now) {
+        if (pinned.isEmpty()) {
+            return machine;
+        }
+        Order last = pinned.get(pinned.size() - 1);
+        LocalDateTime freeAt = last.getStatus() == OrderStatus.COMPLETED && last.getScheduledEndTime().isAfter(now)
+                ? now : last.getScheduledEndTime();
+        LocalDateTime availableFrom = machine.getAvailableFrom() != null
+                && machine.getAvailableFrom().isAfter(freeAt) ? machine.getAvailableFrom() : freeAt;
+        return Machine.builder()
+                .id(machine.getId())
+                .dyeingSpeed(machine.getDyeingSpeed())
+                .currentColorFamily(last.getColorFamily())
+                .availableFrom(availableFrom)
+                .build();
+    }
 
-        for (int i = 0; i < 100; i++) {
-            List<Order> candidate = new ArrayList<>(current);
-            int idx1 = rand.nextInt(candidate.size());
-            int idx2 = rand.nextInt(candidate.size());
-            if (candidate.get(idx1).isCritical() || candidate.get(idx2).isCritical())
-                continue;
+    /**
+     * Checks request options before any work is queued or started.
+     *
+     * @throws IllegalArgumentException naming the first invalid option
+     */
+    public void validate(ScheduleOptions options) {
+        strategyRegistry.get(options.getStrategy());
+        resolveMachines(options.getMachines());
+        Long timeBudgetMs = options.getTimeBudgetMs();
+        if (timeBudgetMs != null && (timeBudgetMs <= 0 || timeBudgetMs > MAX_TIME_BUDGET_MS)) {
+            throw new IllegalArgumentException("timeBudgetMs must be between 1 and " + MAX_TIME_BUDGET_MS);
+        }
+        minimize(options);
+    }
 
-            Collections.swap(candidate, idx1, idx2);
-            double candidateScore = calculateSequenceCleaningTime(candidate);
+    /**
+     * What the request minimizes, else optimizer.objective.minimize.
+     *
+     * @throws IllegalArgumentException for anything but minutes or water
+     */
+    private String minimize(ScheduleOptions options) {
+        String target = options.getMinimize() != null ? options.getMinimize() : minimize;
+        if (!MINIMIZE_MINUTES.equals(target) && !MINIMIZE_WATER.equals(target)) {
+            throw new IllegalArgumentException("minimize must be " + MINIMIZE_MINUTES + " or " + MINIMIZE_WATER);
+        }
+        return target;
+    }
 
-            if (candidateScore < currentScore) {
-                current = candidate;
-                currentScore = candidateScore;
+    /**
+     * Machines sent with the request, else production.machines, else the single default machine.
+     *
+     * @throws IllegalArgumentException when a requested machine has no id, a duplicate id or no speed
+     */
+    public List<Machine> resolveMachines(List<Machine> requested) {
+        List<Machine> machines = requested != null && !requested.isEmpty() ? requested
+                : machineProperties.getMachines();
+        if (machines.isEmpty()) {
+            return List.of(defaultMachine());
+        }
+        Set<String> ids = new HashSet<>();
+        for (Machine machine : machines) {
+            if (machine.getId() == null || machine.getId().isBlank() || !ids.add(machine.getId())) {
+                throw new IllegalArgumentException("Every machine needs a unique id");
+            }
+            if (machine.getDyeingSpeed() <= 0) {
+                throw new IllegalArgumentException("Machine " + machine.getId() + " needs a positive dyeingSpeed");
+            }
+            if (machine.getCurrentColorFamily() == null) {
+                machine.setCurrentColorFamily(ColorFamily.WHITES_PASTELS);
             }
         }
-        return current;
+        return machines;
     }
 
-    private double calculateSequenceCleaningTime(List<Order> seq) {
-        double total = 0;
-        ColorFamily last = ColorFamily.WHITES_PASTELS;
-        for (Order o : seq) {
-            total += cleaningService.calculateCleaningTime(last, o.getColorFamily());
-            last = o.getColorFamily();
-        }
-        return total;
+    private Machine defaultMachine() {
+        return Machine.builder().id(DEFAULT_MACHINE_ID).dyeingSpeed(dyeingSpeed).build();
     }
 
-    public List<ScheduleSlot> mapToSlots(List<Order> sequence, LocalDateTime startTime) {
-        List<ScheduleSlot> slots = new ArrayList<>();
-        LocalDateTime currentTime = startTime;
-        ColorFamily lastFamily = ColorFamily.WHITES_PASTELS;
+    private static LocalDateTime machineStart(Machine machine, LocalDateTime planStart) {
+        return machine.getAvailableFrom() != null && machine.getAvailableFrom().isAfter(planStart)
+                ? machine.getAvailableFrom() : planStart;
+    }
 
-        for (Order order : sequence) {
-            int cleaningTime = cleaningService.calculateCleaningTime(lastFamily, order.getColorFamily());
+    /**
+     * The configured shift calendar, or the fixed daily window from the start hour.
+     */
+    public ProductionClock productionClock() {
+        return productionClock(LocalDate.now(wallClock));
+    }
 
-            // Production Hours Constraint: 8 AM - Midnight (16h Window)
-            currentTime = currentTime.plusMinutes(cleaningTime + setupTimeMinutes);
-            if (currentTime.getHour() < startHour) {
-                currentTime = currentTime.withHour(startHour).withMinute(0).plusDays(1);
-            }
+    private ProductionClock productionClock(LocalDate today) {
+        return shiftCalendarService.calendar(today)
+                .map(calendar -> new ProductionClock(calendar, setupTimeMinutes))
+                .orElseGet(() -> new ProductionClock(startHour, setupTimeMinutes));
+    }
 
-            LocalDateTime slotStart = currentTime;
-            long prodMinutes = (long) (order.getProductionTimeHours() * 60);
-            LocalDateTime slotEnd = slotStart.plusMinutes(prodMinutes);
+    public ObjectiveWeights objectiveWeights() {
+        return new ObjectiveWeights(cleaningWeight, changeoverWeight, tardinessWeight, idleWeight);
+    }
 
-            // Cannot partially dye - Push to next day if it crosses midnight
-            if (slotEnd.getHour() < startHour && slotEnd.getHour() >= 0) {
-                slotStart = slotStart.plusDays(1).withHour(startHour).withMinute(0);
-                slotEnd = slotStart.plusMinutes(prodMinutes);
-            }
+    /**
+     * The configured weights, or cleaning alone when the request minimizes water: water is
+     * used only by cleaning, in proportion to its minutes.
+     */
+    public ObjectiveWeights objectiveWeights(ScheduleOptions options) {
+        return MINIMIZE_WATER.equals(minimize(options)) ? ObjectiveWeights.CLEANING_ONLY : objectiveWeights();
+    }
+
+    public long resolveSeed(Long requestedSeed) {
+        return multiStartOptimizer.resolveSeed(requestedSeed);
+    }
 
-            order.setScheduledStartTime(slotStart);
-            order.setScheduledEndTime(slotEnd);
+    public List<ScheduleSlot> mapToSlots(List<Order> sequence, LocalDateTime startTime) {
+        return mapToSlots(sequence, startTime, defaultMachine());
+    }
 
-            slots.add(ScheduleSlot.builder()
-                    .order(order)
-                    .startTime(slotStart)
-                    .endTime(slotEnd)
-                    .cleaningBeforeMinutes(cleaningTime)
-                    .colorFamily(order.getColorFamily())
-                    .build());
+    /**
+     * Times the sequence from {@code startTime} on the production day: each order starts after
+     * cleaning and setup, no earlier than the start hour, and never runs past midnight. Each
+     * slot carries the water and chemical waste of its cleaning.
+     */
+    public List<ScheduleSlot> mapToSlots(List<Order> sequence, LocalDateTime startTime, Machine machine) {
+        return mapToSlots(Campaign.none(sequence), startTime, machine);
+    }
 
-            currentTime = slotEnd;
-            lastFamily = order.getColorFamily();
+    /**
+     * Same for the lots of {@code campaign}, in order: the orders of a lot run back to back
+     * after one cleaning and setup.
+     */
+    public List<ScheduleSlot> mapToSlots(Campaign campaign, LocalDateTime startTime, Machine machine) {
+        List<Order> lots = campaign.lots();
+        SlotTimeline timeline = new SlotTimeline(lots.size());
+        timeline.append(0, lots, cleaningService.getMatrix(machine.getId()), machine.getCurrentColorFamily(),
+                productionClock(), ProductionClock.toMinute(startTime), machine.getDyeingSpeed());
+        return toSlots(timeline, 0, lots, startTime, machine, campaign, ecoService.tally());
+    }
+
+    /**
+     * Every machine's sequence timed into one timeline, machines in order.
+     */
+    private SlotTimeline timeline(List<Machine> machines, List<StrategyResult> results, LocalDateTime planStart,
+            ProductionClock clock) {
+        SlotTimeline timeline = new SlotTimeline(results.stream().mapToInt(r -> r.sequence().size()).sum());
+        for (int i = 0; i < machines.size(); i++) {
+            Machine machine = machines.get(i);
+            timeline.append(i, results.get(i).sequence(), cleaningService.getMatrix(machine.getId()),
+                    machine.getCurrentColorFamily(), clock,
+                    ProductionClock.toMinute(machineStart(machine, planStart)), machine.getDyeingSpeed());
+        }
+        return timeline;
+    }
+
+    /**
+     * Slots for the lots of {@code sequence}, timed at {@code from} onward in the timeline; the
+     * planned times are written onto the orders as well. The orders of a lot run back to back
+     * inside the lot's slot, the last one ending with it. Every slot is added to {@code eco}.
+     */
+    private List<ScheduleSlot> toSlots(SlotTimeline timeline, int from, List<Order> sequence, LocalDateTime startTime,
+            Machine machine, Campaign campaign, EcoService.Tally eco) {
+        List<ScheduleSlot> slots = new ArrayList<>(sequence.size());
+        for (int i = 0; i < sequence.size(); i++) {
+            List<Order> members = campaign.members(sequence.get(i));
+            long start = timeline.start(from + i);
+            for (int k = 0; k < members.size(); k++) {
+                Order order = members.get(k);
+                long end = k == members.size() - 1 ? timeline.end(from + i)
+                        : start + ProductionClock.productionMinutes(order.getQuantityMeters(), machine.getDyeingSpeed());
+                LocalDateTime slotStart = ProductionClock.toDateTime(start, startTime);
+                LocalDateTime slotEnd = ProductionClock.toDateTime(end, startTime);
+
+                order.setProductionTimeHours((double) order.getQuantityMeters() / machine.getDyeingSpeed());
+                order.setScheduledStartTime(slotStart);
+                order.setScheduledEndTime(slotEnd);
+                order.setMachineId(machine.getId());
+
+                slots.add(eco.add(ScheduleSlot.builder()
+                        .order(order)
+                        .machineId(machine.getId())
+                        .startTime(slotStart)
+                        .endTime(slotEnd)
+                        .cleaningBeforeMinutes(k == 0 ? timeline.cleaning(from + i) : 0)
+                        .continuesLot(k > 0)
+                        .colorFamily(order.getColorFamily())
+                        .build()));
+                start = end;
+            }
         }
         return slots;
     }
 
+    /**
+     * Scores the slots by the weighted objective the optimizer minimizes. Slots are read per
+     * machine in list order; idle time is the gap between consecutive slots beyond cleaning and setup.
+     */
     public Schedule evaluateSchedule(List<ScheduleSlot> slots) {
-        int totalCleaning = slots.stream().mapToInt(ScheduleSlot::getCleaningBeforeMinutes).sum();
-        long totalProdMinutes = slots.stream()
-                .mapToLong(s -> java.time.Duration.between(s.getStartTime(), s.getEndTime()).toMinutes()).sum();
+        return evaluateSchedule(slots, objectiveWeights());
+    }
+
+    public Schedule evaluateSchedule(List<ScheduleSlot> slots, ObjectiveWeights weights) {
+        int totalCleaning = 0;
+        int changeovers = 0;
+        long tardiness = 0;
+        long idle = 0;
+        Map<String, ScheduleSlot> previous = new HashMap<>();
+        for (ScheduleSlot slot : slots) {
+            totalCleaning += slot.getCleaningBeforeMinutes();
+            Order order = slot.getOrder();
+            long late = ProductionClock.minutesBetween(order.getCreatedAt().plusHours(order.getDeadlineHours()),
+                    slot.getEndTime());
+            tardiness += Math.max(0, late);
+            ScheduleSlot before = previous.put(slot.getMachineId(), slot);
+            if (before != null) {
+                if (before.getColorFamily() != slot.getColorFamily()) {
+                    changeovers++;
+                }
+                long gap = ProductionClock.minutesBetween(before.getEndTime(), slot.getStartTime());
+                int downtime = slot.getCleaningBeforeMinutes() + (slot.isContinuesLot() ? 0 : setupTimeMinutes);
+                idle += Math.max(0, gap - downtime);
+            }
+        }
 
-        // Industrial Evaluation Function (40/30/20/10)
         return Schedule.builder()
-                .generatedAt(LocalDateTime.now())
+                .generatedAt(LocalDateTime.now(wallClock))
                 .totalCleaningTimeMinutes(totalCleaning)
+                .colorChangeovers(changeovers)
+                .totalTardinessMinutes(tardiness)
+                .idleMinutes(idle)
+                .objectiveScore(weights.cleaning() * totalCleaning + weights.changeover() * changeovers
+                        + weights.tardiness() * tardiness + weights.idle() * idle)
                 .slots(slots)
                 .build();
     }
 
+    /**
+     * Minimum cleaning any sequence of these orders can reach (deadlines ignored); null when
+     * the configured matrix is outside what the exact sequencer supports.
+     */
+    private Integer calculateLowerBoundCleaningTime(List<Order> orders, Machine machine) {
+        return new ExactFamilySequencer(cleaningService.getMatrix(machine.getId()))
+                .sequence(orders, machine.getCurrentColorFamily())
+                .map(ExactFamilySequencer.Result::cleaningMinutes)
+                .orElse(null);
+    }
+
     private int calculateFifoCleaningTime(List<Order> orders) {
+        CleaningCostMatrix matrix = cleaningService.getMatrix();
         int total = 0;
         ColorFamily last = ColorFamily.WHITES_PASTELS;
         for (Order o : orders) {
-            total += cleaningService.calculateCleaningTime(last, o.getColorFamily());
+            total += matrix.cost(last, o.getColorFamily());
             last = o.getColorFamily();
         }
         return total;
     }
 
     public ScheduleResponseDTO convertToDTO(Schedule schedule) {
-        int timeSaved = schedule.getFifoCleaningTimeMinutes() - schedule.getTotalCleaningTimeMinutes();
-        Map<String, String> metrics = calculateMetrics(schedule);
+        return schedulerMetrics.time(SchedulerMetrics.CONVERT, () -> buildDTO(schedule));
+    }
 
-        if (!schedule.getSlots().isEmpty() && schedule.getSlots().get(0).getOrder().getSimulationRunId() != null) {
-            archiveSimulationRun(schedule.getSlots().get(0).getOrder().getSimulationRunId(), schedule, metrics);
-        }
+    private ScheduleResponseDTO buildDTO(Schedule schedule) {
+        ScheduleResponseDTO summary = summary(schedule, archive(schedule));
+
+        List<ScheduleResponseDTO.SlotDTO> slotDTOs = schedule.getSlots().stream()
+                .map(this::toSlotDTO)
+                .collect(Collectors.toList());
+
+        return summary.toBuilder()
+                .schedule(slotDTOs)
+                .machines(groupByMachine(slotDTOs))
+                .build();
+    }
 
+    /**
+     * Totals and metrics of one plan, without its slots; {@code metrics} as returned by {@link #archive}.
+     */
+    public ScheduleResponseDTO summary(Schedule schedule, Map<String, String> metrics) {
+        int timeSaved = schedule.getFifoCleaningTimeMinutes() - schedule.getTotalCleaningTimeMinutes();
         return ScheduleResponseDTO.builder()
                 .optimizedCleaningTimeMinutes(schedule.getTotalCleaningTimeMinutes())
                 .fifoCleaningTimeMinutes(schedule.getFifoCleaningTimeMinutes())
+                .lowerBoundCleaningTimeMinutes(schedule.getLowerBoundCleaningTimeMinutes())
                 .timeSavedMinutes(Math.max(0, timeSaved))
+                .strategy(schedule.getStrategy())
+                .optimizerSeed(schedule.getOptimizerSeed())
+                .optimizerReplayable(schedule.getOptimizerReplayable())
+                .colorChangeovers(schedule.getColorChangeovers())
+                .totalTardinessMinutes(schedule.getTotalTardinessMinutes())
+                .idleMinutes(schedule.getIdleMinutes())
+                .objectiveScore(schedule.getObjectiveScore())
+                .totalWaterLiters(schedule.getTotalWaterLiters())
+                .totalChemicalWasteKg(schedule.getTotalChemicalWasteKg())
+                .dyedMeters(schedule.getDyedMeters())
+                .ecoGrade(schedule.getEcoGrade())
                 .deadlineCompliance(metrics.get("compliance"))
                 .machineEfficiency(metrics.get("efficiency"))
-                .schedule(schedule.getSlots().stream().map(s -> ScheduleResponseDTO.SlotDTO.builder()
-                        .orderId(s.getOrder().getId())
-                        .colorFamily(s.getColorFamily())
-                        .startTime(s.getStartTime().toString())
-                        .endTime(s.getEndTime().toString())
-                        .cleaningBeforeMinutes(s.getCleaningBeforeMinutes())
-                        .build()).collect(Collectors.toList()))
                 .build();
     }
 
+    public ScheduleResponseDTO.SlotDTO toSlotDTO(ScheduleSlot slot) {
+        return ScheduleResponseDTO.SlotDTO.builder()
+                .orderId(slot.getOrder().getId())
+                .machineId(slot.getMachineId())
+                .colorFamily(slot.getColorFamily())
+                .startTime(slot.getStartTime().toString())
+                .endTime(slot.getEndTime().toString())
+                .cleaningBeforeMinutes(slot.getCleaningBeforeMinutes())
+                .frozen(slot.isFrozen())
+                .continuesLot(slot.isContinuesLot())
+                .waterLiters(slot.getWaterLiters())
+                .chemicalWasteKg(slot.getChemicalWasteKg())
+                .build();
+    }
+
+    /**
+     * Compliance and efficiency of the schedule; for a simulation batch they are also stored on its run.
+     */
+    public Map<String, String> archive(Schedule schedule) {
+        return schedulerMetrics.time(SchedulerMetrics.ARCHIVE, () -> {
+            Map<String, String> metrics = calculateMetrics(schedule);
+            if (!schedule.getSlots().isEmpty()
+                    && schedule.getSlots().get(0).getOrder().getSimulationRunId() != null) {
+                archiveSimulationRun(schedule.getSlots().get(0).getOrder().getSimulationRunId(), schedule, metrics);
+            }
+            return metrics;
+        });
+    }
+
+    /**
+     * Per-machine view of the slots, machines in order of first appearance.
+     */
+    public List<ScheduleResponseDTO.MachineScheduleDTO> groupByMachine(List<ScheduleResponseDTO.SlotDTO> slots) {
+        Map<String, List<ScheduleResponseDTO.SlotDTO>> byMachine = slots.stream()
+                .collect(Collectors.groupingBy(ScheduleResponseDTO.SlotDTO::getMachineId, LinkedHashMap::new,
+                        Collectors.toList()));
+        return byMachine.entrySet().stream().map(e -> ScheduleResponseDTO.MachineScheduleDTO.builder()
+                .machineId(e.getKey())
+                .orderCount(e.getValue().size())
+                .cleaningMinutes(e.getValue().stream().mapToInt(ScheduleResponseDTO.SlotDTO::getCleaningBeforeMinutes)
+                        .sum())
+                .completionTime(e.getValue().stream().map(ScheduleResponseDTO.SlotDTO::getEndTime)
+                        .max(Comparator.naturalOrder()).orElse(null))
+                .slots(e.getValue())
+                .build()).collect(Collectors.toList());
+    }
+
     private Map<String, String> calculateMetrics(Schedule schedule) {
+        Map<String, String> m = new HashMap<>();
+        m.put("compliance", String.format("%.1f%%", complianceRate(schedule)));
+        m.put("efficiency", String.format("%.1f%%", efficiency(schedule)));
+        return m;
+    }
+
+    /**
+     * Share of orders finishing before their deadline, in percent.
+     */
+    public double complianceRate(Schedule schedule) {
         long totalOrders = schedule.getSlots().size();
         long compliantOrders = schedule.getSlots().stream()
                 .filter(s -> s.getEndTime()
                         .isBefore(s.getOrder().getCreatedAt().plusHours(s.getOrder().getDeadlineHours())))
                 .count();
-        double complianceRate = totalOrders > 0 ? (double) compliantOrders / totalOrders * 100 : 100.0;
+        return totalOrders > 0 ? (double) compliantOrders / totalOrders * 100 : 100.0;
+    }
 
+    /**
+     * Production time against production plus cleaning and setup, in percent.
+     */
+    public double efficiency(Schedule schedule) {
+        long setups = schedule.getSlots().stream().filter(s -> !s.isContinuesLot()).count();
         long totalProdMinutes = schedule.getSlots().stream()
-                .mapToLong(s -> java.time.Duration.between(s.getStartTime(), s.getEndTime()).toMinutes())
+                .mapToLong(s -> ProductionClock.minutesBetween(s.getStartTime(), s.getEndTime()))
                 .sum();
-        long totalDowntimeMinutes = schedule.getTotalCleaningTimeMinutes() + (totalOrders * setupTimeMinutes);
-        double efficiency = totalProdMinutes > 0
+        long totalDowntimeMinutes = schedule.getTotalCleaningTimeMinutes() + (setups * setupTimeMinutes);
+        return totalProdMinutes > 0
                 ? (double) totalProdMinutes / (totalProdMinutes + totalDowntimeMinutes) * 100
                 : 0;
-
-        Map<String, String> m = new HashMap<>();
-        m.put("compliance", String.format("%.1f%%", complianceRate));
-        m.put("efficiency", String.format("%.1f%%", efficiency));
-        return m;
     }
 
     private void archiveSimulationRun(Long runId, Schedule schedule, Map<String, String> metrics) {
@@ -258,6 +755,9 @@ public class SchedulingService {
             run.setMachineEfficiency(metrics.get("efficiency"));
             run.setTotalCleaningTimeMinutes(schedule.getTotalCleaningTimeMinutes());
             run.setTimeSavedMinutes(schedule.getFifoCleaningTimeMinutes() - schedule.getTotalCleaningTimeMinutes());
+            run.setEcoGrade(schedule.getEcoGrade());
+            run.setTotalWaterLiters(schedule.getTotalWaterLiters());
+            run.setTotalChemicalWasteKg(schedule.getTotalChemicalWasteKg());
             simulationRunRepository.save(run);
         });
     }
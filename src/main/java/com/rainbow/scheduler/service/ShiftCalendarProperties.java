@@ -0,0 +1,40 @@
+package com.rainbow.scheduler.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shift calendar of the plant.
+ * <pre>
+ * production.calendar.enabled=true
+ * production.calendar.shifts.monday=06:00-14:00,14:00-22:00
+ * production.calendar.shifts.saturday=06:00-12:00
+ * production.calendar.holidays=2026-12-25,2026-12-26
+ * production.calendar.maintenance=2026-11-03T06:00/2026-11-03T14:00
+ * </pre>
+ * A shift ending at or before its start runs past midnight (00:00-00:00 is a full day).
+ * Weekdays without shifts are closed; with no shifts at all every day runs
+ * production.daily-window-hours from production.start-hour.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "production.calendar")
+public class ShiftCalendarProperties {
+
+    private boolean enabled;
+
+    private int horizonDays = 30;
+
+    private Map<DayOfWeek, List<String>> shifts = new EnumMap<>(DayOfWeek.class);
+
+    private List<String> holidays = new ArrayList<>();
+
+    private List<String> maintenance = new ArrayList<>();
+}
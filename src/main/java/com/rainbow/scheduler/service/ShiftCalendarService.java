@@ -0,0 +1,105 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.optimizer.ShiftCalendar;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Builds the {@link ShiftCalendar} from {@link ShiftCalendarProperties}. The index is
+ * rebuilt once a day, so its horizon always starts at the current plan.
+ */
+@Service
+@RequiredArgsConstructor
+public class ShiftCalendarService {
+
+    private final ShiftCalendarProperties properties;
+
+    @Value("${production.start-hour:8}")
+    private int startHour;
+
+    @Value("${production.daily-window-hours:16}")
+    private int dailyWindowHours;
+
+    private volatile Built built;
+
+    /**
+     * Fails startup on a malformed calendar rather than on the first schedule.
+     */
+    @PostConstruct
+    void check() {
+        calendar(LocalDate.now());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * The calendar for plans starting on {@code day}; empty when it is disabled and the fixed
+     * daily window applies.
+     *
+     * @throws IllegalStateException when the configured calendar is malformed
+     */
+    public Optional<ShiftCalendar> calendar(LocalDate day) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        Built current = built;
+        if (current == null || !current.day().equals(day)) {
+            current = new Built(day, build(day));
+            built = current;
+        }
+        return Optional.of(current.calendar());
+    }
+
+    private ShiftCalendar build(LocalDate day) {
+        ShiftCalendar.Builder builder = ShiftCalendar.builder();
+        try {
+            if (properties.getShifts().isEmpty()) {
+                for (DayOfWeek weekday : DayOfWeek.values()) {
+                    builder.shift(weekday, LocalTime.of(startHour, 0), dailyWindowHours * 60);
+                }
+            }
+            for (Map.Entry<DayOfWeek, List<String>> entry : properties.getShifts().entrySet()) {
+                for (String shift : entry.getValue()) {
+                    String[] times = split(shift, "-", "HH:mm-HH:mm");
+                    LocalTime start = LocalTime.parse(times[0]);
+                    int minutes = (LocalTime.parse(times[1]).toSecondOfDay() - start.toSecondOfDay()) / 60;
+                    builder.shift(entry.getKey(), start, minutes > 0 ? minutes : minutes + 24 * 60);
+                }
+            }
+            for (String holiday : properties.getHolidays()) {
+                builder.holiday(LocalDate.parse(holiday.trim()));
+            }
+            for (String window : properties.getMaintenance()) {
+                String[] times = split(window, "/", "start/end as ISO date-times");
+                builder.maintenance(LocalDateTime.parse(times[0]), LocalDateTime.parse(times[1]));
+            }
+            return builder.build(day, properties.getHorizonDays());
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid production.calendar: " + e.getMessage(), e);
+        }
+    }
+
+    private static String[] split(String value, String separator, String expected) {
+        String[] parts = value.trim().split(separator);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("'" + value + "' is not " + expected);
+        }
+        return new String[] { parts[0].trim(), parts[1].trim() };
+    }
+
+    private record Built(LocalDate day, ShiftCalendar calendar) {
+    }
+}
@@ -5,7 +5,7 @@ import com.rainbow.scheduler.repository.OrderRepository;
 import com.rainbow.scheduler.repository.SimulationRunRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -16,37 +16,52 @@ import java.util.Random;
 @RequiredArgsConstructor
 public class SimulationService {
 
+    public static final int TEST_CASES = 10;
+
+    private final TransactionTemplate transactionTemplate;
     private final OrderRepository orderRepository;
     private final SimulationRunRepository simulationRunRepository;
     private final SchedulingService schedulingService;
+    private final DashboardEventService dashboardEvents;
     private final Random random = new Random();
 
-    @Transactional
     public void runFullSimulation() {
-        // Run 10 test cases
-        for (int i = 1; i <= 10; i++) {
-            runSimulationTestCase("Peak Test Case " + i);
+        for (int i = 1; i <= TEST_CASES; i++) {
+            runTestCase(i);
         }
     }
 
-    private void runSimulationTestCase(String name) {
+    /**
+     * Runs test case {@code number} in its own transaction, so a finished case is visible (and its
+     * locks released) while the next one is still being planned.
+     */
+    public void runTestCase(int number) {
+        SimulationRun run = transactionTemplate.execute(status -> runSimulationTestCase("Peak Test Case " + number));
+        dashboardEvents.publish(DashboardEventService.SIMULATION_COMPLETED, run);
+    }
+
+    private SimulationRun runSimulationTestCase(String name) {
         SimulationRun run = SimulationRun.builder()
                 .name(name)
                 .timestamp(LocalDateTime.now())
                 .orderCount(100)
-                .ecoGrade("A")
                 .build();
         run = simulationRunRepository.save(run);
 
-        List<Order> orders = generateRandomOrders(100, run.getId());
-        orderRepository.saveAll(orders);
+        List<Order> orders = generateRandomOrders(100, run.getId(), random);
+        orderRepository.batchInsert(orders);
 
         // Process this specific simulation run
         Schedule schedule = schedulingService.generateOptimizedSchedule(orders);
         schedulingService.convertToDTO(schedule); // Triggers archiving of metrics
+        // batchInsert cleared the persistence context; the archived copy is the managed one
+        return simulationRunRepository.findById(run.getId()).orElse(run);
     }
 
-    private List<Order> generateRandomOrders(int count, Long runId) {
+    /**
+     * Random peak-day orders; pass a seeded {@code random} for a reproducible set (benchmarks).
+     */
+    public static List<Order> generateRandomOrders(int count, Long runId, Random random) {
         List<Order> orders = new ArrayList<>();
         ColorFamily[] families = ColorFamily.values();
         OrderType[] types = OrderType.values();
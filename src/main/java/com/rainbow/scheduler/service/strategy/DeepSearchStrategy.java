@@ -0,0 +1,53 @@
+package com.rainbow.scheduler.service.strategy;
+
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.optimizer.AnnealingSettings;
+import com.rainbow.scheduler.service.MultiStartOptimizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Overnight planning: the same greedy start as the default pipeline, but the annealing
+ * chains run on a time budget of seconds, capped at optimizer.deep.max-iterations.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeepSearchStrategy implements SchedulingStrategy {
+
+    public static final String NAME = "deep";
+
+    private final MultiStartOptimizer multiStartOptimizer;
+
+    @Value("${optimizer.deep.time-budget-ms:3000}")
+    private long timeBudgetMs;
+
+    @Value("${optimizer.deep.max-iterations:5000000}")
+    private long maxIterations;
+
+    @Value("${optimizer.annealing.initial-temperature:25}")
+    private double initialTemperature;
+
+    @Value("${optimizer.annealing.final-temperature:0.05}")
+    private double finalTemperature;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public StrategyResult sequence(List<Order> baseSeq, StrategyContext context) {
+        List<Order> sequence = GreedyOnlyStrategy.insert(baseSeq, context);
+
+        long budget = context.timeBudgetMs() != null ? context.timeBudgetMs() : timeBudgetMs;
+        AnnealingSettings settings = new AnnealingSettings(maxIterations, budget, initialTemperature,
+                finalTemperature);
+        long seed = multiStartOptimizer.resolveSeed(context.seed());
+        MultiStartOptimizer.Result result = multiStartOptimizer.optimize(sequence, context.matrix(),
+                context.startFamily(), settings, seed, context.objective());
+        return new StrategyResult(result.sequence(), seed, result.stoppedOnTime());
+    }
+}
@@ -0,0 +1,44 @@
+package com.rainbow.scheduler.service.strategy;
+
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.optimizer.ExactFamilySequencer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Critical orders run first in their base (earliest deadline first) order, then the rest,
+ * solved exactly from the colour the critical block leaves the machine in, with orders laid
+ * out earliest deadline first inside each family run. Falls back to greedy insertion when the
+ * cleaning matrix is outside what the exact sequencer supports.
+ */
+@Component
+public class ExactStrategy implements SchedulingStrategy {
+
+    public static final String NAME = "exact";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public StrategyResult sequence(List<Order> baseSeq, StrategyContext context) {
+        if (!ExactFamilySequencer.supports(context.matrix())) {
+            return new StrategyResult(GreedyOnlyStrategy.insert(baseSeq, context), null, false);
+        }
+        ExactFamilySequencer sequencer = new ExactFamilySequencer(context.matrix());
+        List<Order> critical = baseSeq.stream().filter(Order::isCritical).collect(Collectors.toList());
+        List<Order> others = baseSeq.stream().filter(o -> !o.isCritical()).collect(Collectors.toList());
+
+        // Critical orders keep deadline order; saving cleaning never lets a later one go first
+        List<Order> sequence = new ArrayList<>(critical);
+        ColorFamily state = sequence.isEmpty() ? context.startFamily()
+                : sequence.get(sequence.size() - 1).getColorFamily();
+        sequence.addAll(sequencer.sequence(others, state).orElseThrow().sequence());
+        return new StrategyResult(sequence, null, false);
+    }
+}
@@ -0,0 +1,54 @@
+package com.rainbow.scheduler.service.strategy;
+
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.optimizer.AnnealingSettings;
+import com.rainbow.scheduler.service.MultiStartOptimizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default pipeline: greedy insertion followed by parallel multi-start simulated annealing.
+ */
+@Component
+@RequiredArgsConstructor
+public class GreedyAnnealingStrategy implements SchedulingStrategy {
+
+    public static final String NAME = "balanced";
+
+    private final MultiStartOptimizer multiStartOptimizer;
+
+    @Value("${optimizer.annealing.max-iterations:200000}")
+    private long maxIterations;
+
+    @Value("${optimizer.annealing.time-budget-ms:150}")
+    private long timeBudgetMs;
+
+    @Value("${optimizer.annealing.initial-temperature:25}")
+    private double initialTemperature;
+
+    @Value("${optimizer.annealing.final-temperature:0.05}")
+    private double finalTemperature;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public StrategyResult sequence(List<Order> baseSeq, StrategyContext context) {
+        // Phase 3: Greedy Look-Ahead
+        List<Order> sequence = GreedyOnlyStrategy.insert(baseSeq, context);
+
+        // Phase 4: Iterative Improvement (parallel multi-start Simulated Annealing)
+        long budget = context.timeBudgetMs() != null ? context.timeBudgetMs() : timeBudgetMs;
+        AnnealingSettings settings = new AnnealingSettings(maxIterations, budget, initialTemperature,
+                finalTemperature);
+        long seed = multiStartOptimizer.resolveSeed(context.seed());
+        MultiStartOptimizer.Result result = multiStartOptimizer.optimize(sequence, context.matrix(),
+                context.startFamily(), settings, seed, context.objective());
+        return new StrategyResult(result.sequence(), seed, result.stoppedOnTime());
+    }
+}
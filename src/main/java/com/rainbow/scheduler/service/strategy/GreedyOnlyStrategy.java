@@ -0,0 +1,37 @@
+package com.rainbow.scheduler.service.strategy;
+
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.optimizer.FamilyInsertionEngine;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Greedy cheapest insertion only: deterministic and fast enough for live dashboard refreshes.
+ */
+@Component
+public class GreedyOnlyStrategy implements SchedulingStrategy {
+
+    public static final String NAME = "fast";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public StrategyResult sequence(List<Order> baseSeq, StrategyContext context) {
+        return new StrategyResult(insert(baseSeq, context), null, false);
+    }
+
+    static List<Order> insert(List<Order> baseSeq, StrategyContext context) {
+        if (baseSeq.isEmpty()) {
+            return baseSeq;
+        }
+        // Cheapest insertion evaluated per transition type; critical orders stay within the window
+        return new ArrayList<>(new FamilyInsertionEngine(context.matrix(), context.startFamily(), CRITICAL_WINDOW,
+                context.objective())
+                .insertAll(baseSeq));
+    }
+}
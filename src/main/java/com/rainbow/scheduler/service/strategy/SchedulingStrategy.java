@@ -0,0 +1,19 @@
+package com.rainbow.scheduler.service.strategy;
+
+import com.rainbow.scheduler.model.Order;
+
+import java.util.List;
+
+/**
+ * Turns the analyzed base schedule (critical orders first, deadline order) into the
+ * production sequence. Implementations are Spring beans and are picked by name per request.
+ */
+public interface SchedulingStrategy {
+
+    /** Critical orders must stay within this many positions from the start of the plan. */
+    int CRITICAL_WINDOW = 15;
+
+    String getName();
+
+    StrategyResult sequence(List<Order> baseSeq, StrategyContext context);
+}
@@ -0,0 +1,49 @@
+package com.rainbow.scheduler.service.strategy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Looks up registered {@link SchedulingStrategy} beans by name.
+ */
+@Component
+public class SchedulingStrategyRegistry {
+
+    private final Map<String, SchedulingStrategy> strategies = new TreeMap<>();
+    private final String defaultStrategy;
+
+    public SchedulingStrategyRegistry(List<SchedulingStrategy> strategies,
+            @Value("${optimizer.strategy:" + GreedyAnnealingStrategy.NAME + "}") String defaultStrategy) {
+        for (SchedulingStrategy strategy : strategies) {
+            if (this.strategies.put(strategy.getName().toLowerCase(Locale.ROOT), strategy) != null) {
+                throw new IllegalStateException("Duplicate scheduling strategy: " + strategy.getName());
+            }
+        }
+        this.defaultStrategy = defaultStrategy;
+        get(defaultStrategy);
+    }
+
+    /**
+     * @param name strategy name, null or blank for the configured default
+     * @throws IllegalArgumentException when no strategy has that name
+     */
+    public SchedulingStrategy get(String name) {
+        String key = (name == null || name.isBlank() ? defaultStrategy : name).toLowerCase(Locale.ROOT);
+        SchedulingStrategy strategy = strategies.get(key);
+        if (strategy == null) {
+            throw new IllegalArgumentException(
+                    "Unknown scheduling strategy '" + name + "'. Available: " + strategies.keySet());
+        }
+        return strategy;
+    }
+
+    public Set<String> names() {
+        return strategies.keySet();
+    }
+}
@@ -0,0 +1,16 @@
+package com.rainbow.scheduler.service.strategy;
+
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.optimizer.CleaningCostMatrix;
+import com.rainbow.scheduler.optimizer.SequenceObjective;
+
+/**
+ * @param matrix       cleaning costs of the machine being planned
+ * @param startFamily  colour the machine is in before the first order
+ * @param timeBudgetMs search budget requested by the caller; null uses the strategy default
+ * @param seed         seed of a randomized search; null picks the configured or a fresh seed
+ * @param objective    what to minimize on this machine; null minimizes cleaning minutes
+ */
+public record StrategyContext(CleaningCostMatrix matrix, ColorFamily startFamily, Long timeBudgetMs, Long seed,
+        SequenceObjective objective) {
+}
@@ -0,0 +1,13 @@
+package com.rainbow.scheduler.service.strategy;
+
+import com.rainbow.scheduler.model.Order;
+
+import java.util.List;
+
+/**
+ * @param sequence      production order
+ * @param seed          seed the search ran with; null for deterministic strategies
+ * @param stoppedOnTime the time budget cut the search short, so the seed does not replay it
+ */
+public record StrategyResult(List<Order> sequence, Long seed, boolean stoppedOnTime) {
+}
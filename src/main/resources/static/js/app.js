@@ -1,6 +1,9 @@
 // State Management
 let currentSchedule = null;
 let allOrders = [];
+let ordersCursor = null;
+let totalOrders = 0;
+let simulations = [];
 let comparisonChart = null;
 
 const colorMap = {
@@ -25,8 +28,81 @@ document.addEventListener('DOMContentLoaded', () => {
     setupEventListeners();
     refreshOrders();
     fetchSimulations();
+    connectEvents();
 });
 
+/**
+ * Applies server-pushed changes (see DashboardEventService) instead of re-fetching after every action.
+ */
+function connectEvents() {
+    const events = new EventSource('/api/events');
+    let connectedBefore = false;
+    events.onopen = () => {
+        // Events sent while we were disconnected are lost; resync once after a reconnect
+        if (connectedBefore) {
+            refreshOrders();
+            fetchSimulations();
+        }
+        connectedBefore = true;
+    };
+
+    events.addEventListener('order-created', e => {
+        const order = JSON.parse(e.data);
+        totalOrders++;
+        // Unscheduled orders sort last, so it belongs on screen only once every page is loaded
+        if (!ordersCursor && !allOrders.some(o => o.id === order.id)) allOrders.push(order);
+        renderOrderTable();
+        updateCapacity();
+    });
+    events.addEventListener('order-updated', e => {
+        const order = JSON.parse(e.data);
+        const index = allOrders.findIndex(o => o.id === order.id);
+        if (index >= 0) {
+            allOrders[index] = order;
+            renderOrderTable();
+        }
+    });
+    events.addEventListener('orders-imported', () => refreshOrders());
+    events.addEventListener('orders-cleared', () => {
+        allOrders = [];
+        ordersCursor = null;
+        totalOrders = 0;
+        renderOrderTable();
+        updateCapacity();
+        currentSchedule = null;
+        document.getElementById('timelineBody').innerHTML = '';
+        updateDashboard();
+    });
+    events.addEventListener('schedule-changed', e => applySlotChanges(JSON.parse(e.data)));
+    events.addEventListener('schedule-summary', e => {
+        const summary = JSON.parse(e.data);
+        delete summary.schedule;
+        delete summary.machines;
+        currentSchedule = Object.assign(currentSchedule || { schedule: [] }, summary);
+        updateDashboard();
+    });
+    events.addEventListener('simulation-completed', e => {
+        const run = JSON.parse(e.data);
+        simulations = [run].concat(simulations).slice(0, 10);
+        renderSimulations(simulations);
+        totalOrders += run.orderCount;
+        updateCapacity();
+    });
+}
+
+function applySlotChanges(changed) {
+    if (!currentSchedule) currentSchedule = { schedule: [] };
+    const indexByOrder = new Map(currentSchedule.schedule.map((slot, i) => [slot.orderId, i]));
+    changed.forEach(slot => {
+        const index = indexByOrder.get(slot.orderId);
+        if (index === undefined) currentSchedule.schedule.push(slot);
+        else currentSchedule.schedule[index] = slot;
+    });
+    currentSchedule.schedule.sort((a, b) =>
+        (a.machineId || '').localeCompare(b.machineId || '') || a.startTime.localeCompare(b.startTime));
+    renderTimeline();
+}
+
 function setupEventListeners() {
     // Tab Switching
     document.querySelectorAll('.nav-link').forEach(item => {
@@ -41,6 +117,7 @@ function setupEventListeners() {
     document.getElementById('simulateBtn').addEventListener('click', simulatePeakHours);
     document.getElementById('generateBtn').addEventListener('click', generateSchedule);
     document.getElementById('clearOrdersBtn').addEventListener('click', clearOrders);
+    document.getElementById('loadMoreOrdersBtn').addEventListener('click', loadOrderPage);
 
     // Modal
     document.getElementById('openAddOrderBtn').addEventListener('click', () => {
@@ -69,9 +146,19 @@ function switchTab(tabId) {
 }
 
 async function refreshOrders() {
+    allOrders = [];
+    ordersCursor = null;
+    await loadOrderPage();
+}
+
+async function loadOrderPage() {
     try {
-        const response = await fetch('/api/orders');
-        allOrders = await response.json();
+        const query = ordersCursor ? `?cursor=${encodeURIComponent(ordersCursor)}` : '';
+        const response = await fetch(`/api/orders/page${query}`);
+        const page = await response.json();
+        allOrders = allOrders.concat(page.orders);
+        ordersCursor = page.nextCursor;
+        totalOrders = page.totalOrders;
         renderOrderTable();
         updateCapacity();
     } catch (err) { console.error(err); }
@@ -97,6 +184,7 @@ function renderOrderTable() {
         `;
         tbody.appendChild(tr);
     });
+    document.getElementById('loadMoreOrdersBtn').style.display = ordersCursor ? '' : 'none';
 }
 
 async function completeOrder(id) {
@@ -104,14 +192,13 @@ async function completeOrder(id) {
         const response = await fetch(`/api/orders/${id}/status?status=COMPLETED`, { method: 'PATCH' });
         if (response.ok) {
             addActivityAlert(`Order #${id} marked as Completed.`, 'info');
-            refreshOrders();
         }
     } catch (err) { console.error(err); }
 }
 
 async function handleManualOrder(e) {
     e.preventDefault();
-    if (allOrders.length >= 100) {
+    if (totalOrders >= 100) {
         showPopup('Factory Capacity Reached (100/100)!');
         return;
     }
@@ -140,7 +227,6 @@ async function handleManualOrder(e) {
         });
         if (response.ok) {
             document.getElementById('orderForm').reset();
-            refreshOrders();
             showPopup('New Production Order Added.');
             addActivityAlert(`Manual Intake: ${order.colorName}`, 'info');
         }
@@ -149,6 +235,34 @@ async function handleManualOrder(e) {
 
 
 
+const JOB_POLL_MS = 1000;
+
+/**
+ * Submits a background job and polls it until it finishes; onProgress gets every snapshot.
+ * Resolves with the finished job, or null when the server is saturated (429) or rejects it.
+ */
+async function runJob(url, onProgress) {
+    const response = await fetch(url, { method: 'POST' });
+    if (response.status === 429) {
+        showPopup('Scheduler is busy, try again in a few seconds.');
+        return null;
+    }
+    if (!response.ok) {
+        showPopup(await response.text() || 'Job could not be started');
+        return null;
+    }
+    let job = await response.json();
+    while (job.state === 'QUEUED' || job.state === 'RUNNING') {
+        if (onProgress) onProgress(job);
+        await new Promise(resolve => setTimeout(resolve, JOB_POLL_MS));
+        job = await (await fetch(`/api/jobs/${job.id}`)).json();
+    }
+    if (job.state === 'FAILED') {
+        showPopup('Job failed: ' + job.message);
+    }
+    return job;
+}
+
 async function simulatePeakHours() {
     const btn = document.getElementById('simulateBtn');
     const oldText = btn.innerHTML;
@@ -156,15 +270,13 @@ async function simulatePeakHours() {
         btn.innerHTML = '<i data-lucide="loader-2" class="spin" style="width:16px; margin-right:5px;"></i> Simulating...';
         btn.disabled = true;
 
-        const response = await fetch('/api/simulations/run', { method: 'POST' });
-        if (response.ok) {
+        const job = await runJob('/api/jobs/simulations', progress => {
+            btn.innerHTML = `Simulating ${progress.completedSteps}/${progress.totalSteps}...`;
+        });
+        if (job && job.state === 'SUCCEEDED') {
             await refreshOrders();
             showPopup('100 Peak-Hour test cases generated! Click "Generate Optimized" to process.');
             addActivityAlert('SIMULATION started: 1000 orders.', 'warn');
-
-            fetchSimulations();
-        } else {
-            showPopup('Simulation failed to start');
         }
     } catch (err) {
         console.error(err);
@@ -177,27 +289,30 @@ async function simulatePeakHours() {
 }
 
 async function generateSchedule() {
+    const btn = document.getElementById('generateBtn');
     try {
-        const btn = document.getElementById('generateBtn');
         btn.innerText = 'Optimizing...';
-        const response = await fetch('/api/schedule/generate', { method: 'POST' });
-        if (response.ok) {
-            currentSchedule = await response.json();
+        btn.disabled = true;
+        const job = await runJob('/api/jobs/schedules');
+        if (job && job.state === 'SUCCEEDED') {
+            currentSchedule = job.result;
             updateDashboard();
             renderTimeline();
             showPopup('Dynamic Schedule Generated.');
             addActivityAlert(`Optimization Finished. Savings: ${currentSchedule.timeSavedMinutes}m`, 'info');
-            refreshOrders();
         }
+    } catch (err) {
+        console.error(err);
+    } finally {
         btn.innerText = 'Generate Optimized';
-    } catch (err) { console.error(err); }
+        btn.disabled = false;
+    }
 }
 
 async function clearOrders() {
     if (!confirm('Clear all?')) return;
     try {
         await fetch('/api/orders/clear', { method: 'DELETE' });
-        refreshOrders();
         currentSchedule = null;
         document.getElementById('timelineBody').innerHTML = '';
         updateDashboard();
@@ -269,6 +384,7 @@ function renderTimeline() {
         const tr = document.createElement('tr');
         tr.innerHTML = `
             <td>${index + 1}</td>
+            <td>${slot.machineId || '-'}</td>
             <td>Order #${slot.orderId}</td>
             <td><div style="width:12px; height:12px; border-radius:3px; background:${colorMap[slot.colorFamily] || '#ccc'}; display:inline-block; margin-right:5px;"></div> ${slot.colorFamily}</td>
             <td>${slot.colorFamily}</td>
@@ -282,8 +398,8 @@ function renderTimeline() {
 async function fetchSimulations() {
     try {
         const response = await fetch('/api/simulations');
-        const sims = await response.json();
-        renderSimulations(sims);
+        simulations = await response.json();
+        renderSimulations(simulations);
     } catch (err) { console.error(err); }
 }
 
@@ -353,7 +469,7 @@ async function showSimulationDetails(sim) {
 
 function updateCapacity() {
     const label = document.getElementById('capacityLabel');
-    const count = allOrders.length;
+    const count = totalOrders;
     label.innerText = `Capacity: ${count}/100`;
     if (count >= 100) label.style.color = 'var(--danger)';
     else if (count >= 90) label.style.color = 'var(--warning)';
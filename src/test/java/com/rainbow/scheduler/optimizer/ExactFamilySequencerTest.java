@@ -0,0 +1,120 @@
+package com.rainbow.scheduler.optimizer;
+
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The shortest-path sequencer against every permutation of small random instances.
+ */
+class ExactFamilySequencerTest {
+
+    private static final ColorFamily[] FAMILIES = ColorFamily.values();
+
+    @Test
+    void matchesBruteForceOnIndustrialMatrix() {
+        check(CleaningCostMatrix.industrialDefault(), new Random(1), 150);
+    }
+
+    @Test
+    void matchesBruteForceOnRandomMatrices() {
+        Random random = new Random(2);
+        for (int i = 0; i < 20; i++) {
+            check(randomMatrix(random), random, 10);
+        }
+    }
+
+    @Test
+    void refusesMatrixWhereLeavingIsCheaperThanStaying() {
+        Map<ColorFamily, Map<ColorFamily, Integer>> overrides = new EnumMap<>(ColorFamily.class);
+        overrides.put(ColorFamily.WHITES_PASTELS, Map.of(ColorFamily.DARK_COLORS, 0));
+        overrides.put(ColorFamily.DARK_COLORS, Map.of(ColorFamily.DARK_COLORS, 30));
+        CleaningCostMatrix matrix = CleaningCostMatrix.industrialDefault().withOverrides(overrides);
+
+        assertTrue(new ExactFamilySequencer(matrix).sequence(List.of(order(ColorFamily.DARK_COLORS)),
+                ColorFamily.WHITES_PASTELS).isEmpty());
+    }
+
+    private static void check(CleaningCostMatrix matrix, Random random, int instances) {
+        ExactFamilySequencer sequencer = new ExactFamilySequencer(matrix);
+        for (int i = 0; i < instances; i++) {
+            List<Order> orders = new ArrayList<>();
+            int size = 1 + random.nextInt(8);
+            for (int k = 0; k < size; k++) {
+                orders.add(order(FAMILIES[random.nextInt(FAMILIES.length)]));
+            }
+            ColorFamily start = FAMILIES[random.nextInt(FAMILIES.length)];
+
+            ExactFamilySequencer.Result result = sequencer.sequence(orders, start).orElseThrow();
+
+            assertEquals(bruteForce(matrix, orders, start), result.cleaningMinutes(), "orders " + orders);
+            assertEquals(result.cleaningMinutes(), cleaning(matrix, result.sequence(), start));
+            Set<Order> returned = Collections.newSetFromMap(new IdentityHashMap<>());
+            returned.addAll(result.sequence());
+            assertEquals(orders.size(), result.sequence().size());
+            assertTrue(returned.containsAll(orders));
+        }
+    }
+
+    private static int bruteForce(CleaningCostMatrix matrix, List<Order> orders, ColorFamily start) {
+        return permute(matrix, new ArrayList<>(orders), 0, start);
+    }
+
+    // Minimum cleaning over every order of positions k onward, given the family before position k
+    private static int permute(CleaningCostMatrix matrix, List<Order> orders, int k, ColorFamily before) {
+        if (k == orders.size()) {
+            return 0;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int i = k; i < orders.size(); i++) {
+            Collections.swap(orders, k, i);
+            ColorFamily family = orders.get(k).getColorFamily();
+            best = Math.min(best, matrix.cost(before, family) + permute(matrix, orders, k + 1, family));
+            Collections.swap(orders, k, i);
+        }
+        return best;
+    }
+
+    private static int cleaning(CleaningCostMatrix matrix, List<Order> sequence, ColorFamily start) {
+        int total = 0;
+        ColorFamily last = start;
+        for (Order order : sequence) {
+            total += matrix.cost(last, order.getColorFamily());
+            last = order.getColorFamily();
+        }
+        return total;
+    }
+
+    // Leaving a family never costs less than resetting the target family, as supports() requires
+    private static CleaningCostMatrix randomMatrix(Random random) {
+        int[] self = new int[FAMILIES.length];
+        for (int f = 0; f < FAMILIES.length; f++) {
+            self[f] = random.nextInt(20);
+        }
+        Map<ColorFamily, Map<ColorFamily, Integer>> overrides = new EnumMap<>(ColorFamily.class);
+        for (ColorFamily from : FAMILIES) {
+            Map<ColorFamily, Integer> row = new EnumMap<>(ColorFamily.class);
+            for (ColorFamily to : FAMILIES) {
+                row.put(to, from == to ? self[to.ordinal()] : self[to.ordinal()] + random.nextInt(60));
+            }
+            overrides.put(from, row);
+        }
+        return CleaningCostMatrix.industrialDefault().withOverrides(overrides);
+    }
+
+    private static Order order(ColorFamily family) {
+        return Order.builder().colorFamily(family).quantityMeters(100).deadlineHours(24).build();
+    }
+}
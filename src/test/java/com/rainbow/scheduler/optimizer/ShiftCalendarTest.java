@@ -0,0 +1,101 @@
+package com.rainbow.scheduler.optimizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The indexed next start against a minute-by-minute scan of random calendars, before, across
+ * and after the indexed horizon.
+ */
+class ShiftCalendarTest {
+
+    private static final int DAY = 24 * 60;
+    private static final int SPAN_DAYS = 160;
+
+    @Test
+    void nextStartMatchesMinuteScan() {
+        Random random = new Random(3);
+        for (int c = 0; c < 200; c++) {
+            ShiftCalendar.Builder builder = ShiftCalendar.builder();
+            LocalDate from = LocalDate.of(2026, 10, 1 + random.nextInt(28));
+            long base = ProductionClock.toMinute(from.minusDays(20).atStartOfDay());
+            boolean[] open = new boolean[(SPAN_DAYS + 2) * DAY];
+
+            for (int i = 1 + random.nextInt(10); i > 0; i--) {
+                DayOfWeek day = DayOfWeek.of(1 + random.nextInt(7));
+                int start = random.nextInt(96) * 15;
+                int minutes = 15 * (1 + random.nextInt(random.nextBoolean() ? 96 : 40));
+                builder.shift(day, LocalTime.ofSecondOfDay(start * 60L), minutes);
+                for (int d = -1; d < SPAN_DAYS + 2; d++) {
+                    if (from.minusDays(20 - d).getDayOfWeek() == day) {
+                        fill(open, (long) d * DAY + start, (long) d * DAY + start + minutes, true);
+                    }
+                }
+            }
+            List<long[]> blocked = new ArrayList<>();
+            for (int i = random.nextInt(4); i > 0; i--) {
+                LocalDate holiday = from.plusDays(random.nextInt(40) - 3);
+                builder.holiday(holiday);
+                long minute = ProductionClock.toMinute(holiday.atStartOfDay());
+                blocked.add(new long[] { minute, minute + DAY });
+            }
+            for (int i = random.nextInt(4); i > 0; i--) {
+                LocalDateTime start = from.atStartOfDay().plusMinutes(random.nextInt(50 * DAY) - 2000);
+                LocalDateTime end = start.plusMinutes(1 + random.nextInt(3000));
+                builder.maintenance(start, end);
+                blocked.add(new long[] { ProductionClock.toMinute(start), ProductionClock.toMinute(end) });
+            }
+            for (long[] window : blocked) {
+                fill(open, window[0] - base, window[1] - base, false);
+            }
+            ShiftCalendar calendar = builder.build(from, 10 + random.nextInt(30));
+
+            long longest = calendar.longestShiftMinutes();
+            for (int q = 0; q < 200; q++) {
+                int earliest = 5 * DAY + random.nextInt((SPAN_DAYS - 10) * DAY);
+                long minutes = 1 + random.nextInt((int) Math.min(2000, longest + 100));
+                assertEquals(scan(open, earliest, minutes, longest), calendar.nextStart(base + earliest, minutes) - base,
+                        "calendar " + c + ", earliest " + earliest + ", minutes " + minutes);
+            }
+        }
+    }
+
+    @Test
+    void buildWithoutShiftsFails() {
+        assertThrows(IllegalStateException.class, () -> ShiftCalendar.builder().build(LocalDate.of(2026, 10, 1), 30));
+    }
+
+    /**
+     * First minute from {@code earliest} starting {@code minutes} of open time, or, for a job
+     * longer than every shift, the first minute a shift opens.
+     */
+    private static long scan(boolean[] open, int earliest, long minutes, long longest) {
+        int run = 0;
+        for (int m = earliest; m < open.length; m++) {
+            if (minutes > longest) {
+                if (open[m] && !open[m - 1]) {
+                    return m;
+                }
+            } else if ((run = open[m] ? run + 1 : 0) >= minutes) {
+                return m - minutes + 1;
+            }
+        }
+        throw new AssertionError("no start within the scanned span");
+    }
+
+    private static void fill(boolean[] open, long from, long to, boolean value) {
+        Arrays.fill(open, (int) Math.max(0, Math.min(open.length, from)), (int) Math.max(0, Math.min(open.length, to)),
+                value);
+    }
+}
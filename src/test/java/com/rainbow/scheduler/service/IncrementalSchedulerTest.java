@@ -0,0 +1,166 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.dto.ScheduleOptions;
+import com.rainbow.scheduler.model.ColorFamily;
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.model.OrderStatus;
+import com.rainbow.scheduler.model.OrderType;
+import com.rainbow.scheduler.model.Schedule;
+import com.rainbow.scheduler.model.ScheduleSlot;
+import com.rainbow.scheduler.repository.OrderRepository;
+import com.rainbow.scheduler.repository.SimulationRunRepository;
+import com.rainbow.scheduler.service.strategy.DeepSearchStrategy;
+import com.rainbow.scheduler.service.strategy.ExactStrategy;
+import com.rainbow.scheduler.service.strategy.GreedyAnnealingStrategy;
+import com.rainbow.scheduler.service.strategy.GreedyOnlyStrategy;
+import com.rainbow.scheduler.service.strategy.SchedulingStrategyRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Folding an order into a live plan keeps its dye lots whole: the order becomes a lot of its
+ * own and every other lot is still dyed back to back after one cleaning. Lots that have started
+ * stay put and nothing is re-timed into the past.
+ */
+@SpringJUnitConfig(classes = { SimpleMeterRegistry.class, CleaningMatrixProperties.class, CleaningService.class,
+        MachineProperties.class, SchedulerMetrics.class, ShiftCalendarProperties.class, ShiftCalendarService.class,
+        CampaignService.class, EcoService.class, MultiStartOptimizer.class, MachineAssignmentService.class,
+        ScheduleCache.class, GreedyOnlyStrategy.class, GreedyAnnealingStrategy.class, DeepSearchStrategy.class,
+        ExactStrategy.class, SchedulingStrategyRegistry.class, SchedulingService.class, IncrementalScheduler.class })
+class IncrementalSchedulerTest {
+
+    @MockBean
+    private OrderRepository orderRepository;
+
+    @MockBean
+    private SimulationRunRepository simulationRunRepository;
+
+    @MockBean
+    private DashboardEventService dashboardEvents;
+
+    @MockBean
+    private Clock clock;
+
+    @Autowired
+    private SchedulingService schedulingService;
+
+    @Autowired
+    private IncrementalScheduler incrementalScheduler;
+
+    @BeforeEach
+    void beforeTheDayStarts() {
+        at(LocalDateTime.of(2026, 10, 19, 7, 0));
+    }
+
+    @Test
+    void insertedOrderKeepsLotsWhole() {
+        List<Order> orders = SimulationService.generateRandomOrders(100, null, new Random(42));
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setId(i + 1L);
+        }
+        Schedule schedule = schedulingService.simulate(orders, ScheduleOptions.builder().seed(42L).build());
+        Map<Order, Order> lotBefore = lotHeads(schedule.getSlots());
+        long continuing = schedule.getSlots().stream().filter(ScheduleSlot::isContinuesLot).count();
+        assertTrue(continuing > 0, "the seeded plan should merge some orders into lots");
+        incrementalScheduler.remember(schedule, orders);
+
+        Order added = Order.builder()
+                .id(101L)
+                .colorName("Added")
+                .colorFamily(ColorFamily.DARK_COLORS)
+                .quantityMeters(400)
+                .orderType(OrderType.STANDARD)
+                .deadlineHours(72)
+                .status(OrderStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+        assertTrue(incrementalScheduler.onOrderCreated(added));
+
+        List<ScheduleSlot> slots = schedule.getSlots();
+        assertEquals(101, slots.size());
+        assertEquals(continuing, slots.stream().filter(ScheduleSlot::isContinuesLot).count());
+        Map<Order, Order> lotAfter = lotHeads(slots);
+        for (Order order : orders) {
+            assertTrue(lotBefore.get(order) == lotAfter.get(order), "order " + order.getId() + " changed lot");
+        }
+        assertTrue(slots.stream().filter(s -> s.getOrder() == added).noneMatch(ScheduleSlot::isContinuesLot));
+        assertEquals(slots.stream().mapToInt(ScheduleSlot::getCleaningBeforeMinutes).sum(),
+                schedule.getTotalCleaningTimeMinutes());
+    }
+
+    @Test
+    void startedLotsStayPutAndNothingMovesIntoThePast() {
+        List<Order> orders = SimulationService.generateRandomOrders(60, null, new Random(7));
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setId(i + 1L);
+        }
+        Schedule schedule = schedulingService.simulate(orders, ScheduleOptions.builder().seed(7L).build());
+        incrementalScheduler.remember(schedule, orders);
+        Map<Order, List<LocalDateTime>> before = new IdentityHashMap<>();
+        schedule.getSlots().forEach(slot -> before.put(slot.getOrder(), List.of(slot.getStartTime(), slot.getEndTime())));
+
+        // A third of the way into the plan: earlier lots are running or done
+        LocalDateTime now = schedule.getSlots().get(orders.size() / 3).getStartTime().plusMinutes(1);
+        LocalDateTime earliest = schedulingService.planStart(now);
+        at(now);
+        Order added = Order.builder()
+                .id(61L)
+                .colorName("Rush")
+                .colorFamily(ColorFamily.WHITES_PASTELS)
+                .quantityMeters(200)
+                .orderType(OrderType.RUSH)
+                .deadlineHours(4)
+                .status(OrderStatus.PENDING)
+                .createdAt(now)
+                .build();
+        assertTrue(incrementalScheduler.onOrderCreated(added));
+
+        for (ScheduleSlot slot : schedule.getSlots()) {
+            List<LocalDateTime> planned = before.get(slot.getOrder());
+            if (planned != null && !planned.get(0).isAfter(now)) {
+                assertEquals(planned, List.of(slot.getStartTime(), slot.getEndTime()),
+                        "started order " + slot.getOrder().getId() + " moved");
+            } else if (planned == null || !planned.equals(List.of(slot.getStartTime(), slot.getEndTime()))) {
+                assertTrue(!slot.getStartTime().isBefore(earliest),
+                        "order " + slot.getOrder().getId() + " re-timed to " + slot.getStartTime());
+            }
+        }
+    }
+
+    private void at(LocalDateTime now) {
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        when(clock.instant()).thenReturn(now.toInstant(ZoneOffset.UTC));
+    }
+
+    /**
+     * First order of the lot each order is dyed in.
+     */
+    private static Map<Order, Order> lotHeads(List<ScheduleSlot> slots) {
+        Map<Order, Order> heads = new IdentityHashMap<>();
+        Map<String, Order> current = new HashMap<>();
+        for (ScheduleSlot slot : slots) {
+            if (!slot.isContinuesLot()) {
+                current.put(slot.getMachineId(), slot.getOrder());
+            }
+            heads.put(slot.getOrder(), current.get(slot.getMachineId()));
+        }
+        return heads;
+    }
+}
@@ -0,0 +1,155 @@
+package com.rainbow.scheduler.service;
+
+import com.rainbow.scheduler.dto.ScheduleOptions;
+import com.rainbow.scheduler.model.Order;
+import com.rainbow.scheduler.model.Schedule;
+import com.rainbow.scheduler.model.ScheduleSlot;
+import com.rainbow.scheduler.repository.OrderRepository;
+import com.rainbow.scheduler.repository.SimulationRunRepository;
+import com.rainbow.scheduler.service.strategy.DeepSearchStrategy;
+import com.rainbow.scheduler.service.strategy.ExactStrategy;
+import com.rainbow.scheduler.service.strategy.GreedyAnnealingStrategy;
+import com.rainbow.scheduler.service.strategy.GreedyOnlyStrategy;
+import com.rainbow.scheduler.service.strategy.SchedulingStrategyRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Regenerating during the working day, on the default 15-minute replan step: the pending tail
+ * starts at the next step and never in the past, so orders that did not run are not frozen by
+ * the next generate, and a generate within the same step is served from the cache.
+ */
+@SpringJUnitConfig(classes = { SimpleMeterRegistry.class, CleaningMatrixProperties.class, CleaningService.class,
+        MachineProperties.class, SchedulerMetrics.class, ShiftCalendarProperties.class, ShiftCalendarService.class,
+        CampaignService.class, EcoService.class, MultiStartOptimizer.class, MachineAssignmentService.class,
+        ScheduleCache.class, GreedyOnlyStrategy.class, GreedyAnnealingStrategy.class, DeepSearchStrategy.class,
+        ExactStrategy.class, SchedulingStrategyRegistry.class, SchedulingService.class })
+class SchedulingServiceTest {
+
+    @MockBean
+    private OrderRepository orderRepository;
+
+    @MockBean
+    private SimulationRunRepository simulationRunRepository;
+
+    @MockBean
+    private Clock clock;
+
+    @Autowired
+    private SchedulingService schedulingService;
+
+    @Autowired
+    private ScheduleCache scheduleCache;
+
+    @Test
+    void pendingTailStartsAtNextStep() {
+        LocalDateTime now = at(LocalDateTime.of(2026, 10, 19, 10, 7));
+        Schedule schedule = schedulingService.simulate(orders(1), fast());
+
+        assertEquals(LocalDateTime.of(2026, 10, 19, 10, 15), schedule.getPlanStart());
+        assertTrue(schedule.getSlots().stream().allMatch(slot -> !slot.getStartTime().isBefore(schedule.getPlanStart())
+                && slot.getStartTime().isAfter(now)));
+    }
+
+    @Test
+    void planStartsAtStartHourBeforeTheDayBegins() {
+        at(LocalDateTime.of(2026, 10, 19, 6, 30));
+        Schedule schedule = schedulingService.simulate(orders(1), fast());
+
+        assertEquals(LocalDateTime.of(2026, 10, 19, 8, 0), schedule.getPlanStart());
+    }
+
+    @Test
+    void generateWithinTheSameStepIsServedFromCache() {
+        List<Order> orders = orders(2);
+        at(LocalDateTime.of(2026, 10, 19, 11, 1));
+        Schedule first = schedulingService.generateOptimizedSchedule(orders, fast());
+        long hits = scheduleCache.stats().getHits();
+
+        at(LocalDateTime.of(2026, 10, 19, 11, 14));
+        Schedule second = schedulingService.generateOptimizedSchedule(orders, fast());
+
+        assertEquals(hits + 1, scheduleCache.stats().getHits());
+        assertTrue(second.getSlots().stream().noneMatch(ScheduleSlot::isFrozen));
+        assertTrue(second.getChangedSlots().isEmpty());
+        assertEquals(first.getTotalCleaningTimeMinutes(), second.getTotalCleaningTimeMinutes());
+    }
+
+    @Test
+    void generateInTheNextStepReplansWithoutFreezingUnstartedOrders() {
+        List<Order> orders = orders(3);
+        at(LocalDateTime.of(2026, 10, 19, 13, 1));
+        schedulingService.generateOptimizedSchedule(orders, fast());
+        long misses = scheduleCache.stats().getMisses();
+
+        LocalDateTime now = at(LocalDateTime.of(2026, 10, 19, 13, 16));
+        Schedule second = schedulingService.generateOptimizedSchedule(orders, fast());
+
+        assertEquals(misses + 1, scheduleCache.stats().getMisses());
+        assertEquals(LocalDateTime.of(2026, 10, 19, 13, 30), second.getPlanStart());
+        assertTrue(second.getSlots().stream().allMatch(slot -> slot.isFrozen() != slot.getStartTime().isAfter(now)));
+    }
+
+    @Test
+    void unseededRunReportsTheSeedThatReplaysIt() {
+        at(LocalDateTime.of(2026, 10, 19, 9, 1));
+        Schedule first = schedulingService.simulate(orders(4), balanced(null));
+
+        assertNotNull(first.getOptimizerSeed());
+        assertEquals(Boolean.TRUE, first.getOptimizerReplayable());
+        Schedule replay = schedulingService.simulate(orders(4), balanced(first.getOptimizerSeed()));
+        assertEquals(sequence(first), sequence(replay));
+    }
+
+    @Test
+    void runStoppedByTheTimeBudgetIsNotReplayable() {
+        at(LocalDateTime.of(2026, 10, 19, 9, 1));
+        Schedule schedule = schedulingService.simulate(orders(5), ScheduleOptions.builder()
+                .strategy(GreedyAnnealingStrategy.NAME).timeBudgetMs(1L).seed(5L).build());
+
+        assertEquals(5L, schedule.getOptimizerSeed());
+        assertEquals(Boolean.FALSE, schedule.getOptimizerReplayable());
+    }
+
+    // A budget the iteration cap is always reached within
+    private static ScheduleOptions balanced(Long seed) {
+        return ScheduleOptions.builder().strategy(GreedyAnnealingStrategy.NAME)
+                .timeBudgetMs(SchedulingService.MAX_TIME_BUDGET_MS).seed(seed).build();
+    }
+
+    private static List<Long> sequence(Schedule schedule) {
+        return schedule.getSlots().stream().map(slot -> slot.getOrder().getId()).toList();
+    }
+
+    private LocalDateTime at(LocalDateTime now) {
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        when(clock.instant()).thenReturn(now.toInstant(ZoneOffset.UTC));
+        return now;
+    }
+
+    private static List<Order> orders(long seed) {
+        List<Order> orders = SimulationService.generateRandomOrders(40, null, new Random(seed));
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setId(i + 1L);
+        }
+        return orders;
+    }
+
+    private static ScheduleOptions fast() {
+        return ScheduleOptions.builder().strategy(GreedyOnlyStrategy.NAME).build();
+    }
+}